@@ -0,0 +1,64 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.os.Looper;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+/**
+ * Verifies that the DashSpinner draw path does not allocate once it has reached a steady state
+ */
+@SuppressWarnings("deprecation")
+public class DashSpinnerAllocationTest extends AndroidTestCase {
+
+	private static final int SPINNER_SIZE = 300;
+	private static final int FRAME_COUNT  = 200;
+
+	private DashSpinner mDashSpinner = null;
+	private Canvas      mCanvas      = null;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		//The spinner creates a Handler, so it needs a looper on the test thread
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+
+		mDashSpinner = new DashSpinner(getContext());
+		mDashSpinner.setShowProgressText(true);
+		int nSpec = View.MeasureSpec.makeMeasureSpec(SPINNER_SIZE, View.MeasureSpec.EXACTLY);
+		mDashSpinner.measure(nSpec, nSpec);
+		mDashSpinner.layout(0, 0, SPINNER_SIZE, SPINNER_SIZE);
+		mCanvas = new Canvas(Bitmap.createBitmap(SPINNER_SIZE, SPINNER_SIZE, Bitmap.Config.ARGB_8888));
+	}
+
+	public void testDownloadFramesDoNotAllocate() throws Exception {
+		//Warm up every percentage once so that any lazy initialisation is out of the way
+		for (int nPercent = 0; nPercent <= 100; nPercent++) {
+			setProgressAndDrain(nPercent / 100.0f);
+			mDashSpinner.onDraw(mCanvas);
+		}
+
+		//Only count the draw itself. Scheduling the frame that drains the progress is not part of the draw path
+		Debug.resetThreadAllocCount();
+		for (int nFrame = 0; nFrame < FRAME_COUNT; nFrame++) {
+			setProgressAndDrain((nFrame % 101) / 100.0f);
+			Debug.startAllocCounting();
+			mDashSpinner.onDraw(mCanvas);
+			Debug.stopAllocCounting();
+		}
+
+		assertEquals("onDraw allocated during steady state download frames", 0, Debug.getThreadAllocCount());
+	}
+
+	/**
+	 * Set the progress and apply it right away, as the frame callback would on the UI thread
+	 */
+	private void setProgressAndDrain(float nProgress) {
+		mDashSpinner.setProgress(nProgress);
+		mDashSpinner.drainCommands();
+	}
+}
@@ -0,0 +1,125 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.test.AndroidTestCase;
+
+import com.abysmel.dashspinner.DashSpinner.DASH_MODE;
+
+/**
+ * Pins the number of draw ops that a frame issues in each state: the ring and the inner circle, plus one
+ * drawLines per glyph, plus the arc while downloading
+ */
+@SuppressWarnings("deprecation")
+public class DashSpinnerDrawOpCountTest extends AndroidTestCase {
+
+	private static final int  SPINNER_SIZE = 300;
+	private static final long PHASE_NANOS  = 400000000L;        //The duration of each phase of the transition
+
+	private Canvas mCanvas = null;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		//The renderer creates a Handler, so it needs a looper on the test thread
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+
+		mCanvas = new Canvas(Bitmap.createBitmap(SPINNER_SIZE, SPINNER_SIZE, Bitmap.Config.ARGB_8888));
+	}
+
+	public void testDownload() throws Exception {
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.setState(DASH_MODE.DOWNLOAD, 0.5f);
+		renderer.draw(mCanvas);
+
+		//Ring, circle, arc
+		assertEquals(3, renderer.getDrawOpCount(DASH_MODE.DOWNLOAD));
+	}
+
+	public void testDownloadWithText() throws Exception {
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.setShowProgressText(true);
+		renderer.setState(DASH_MODE.DOWNLOAD, 0.5f);
+		renderer.draw(mCanvas);
+
+		//Ring, circle, one atlas draw per character of "50%", arc
+		assertEquals(6, renderer.getDrawOpCount(DASH_MODE.DOWNLOAD));
+	}
+
+	public void testTransitionTextAndCircle() throws Exception {
+		//Near the end of the phase, where the text has become the dot
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.resumeTransition(DASH_MODE.SUCCESS, 1.0f, PHASE_NANOS - (PHASE_NANOS / 100));
+		DashSpinnerTicker.getInstance().doFrame(System.nanoTime());
+		assertEquals(DASH_MODE.TRANSITION_TEXT_AND_CIRCLE, renderer.getDashMode());
+		renderer.draw(mCanvas);
+
+		//Ring, circle, dot
+		assertEquals(3, renderer.getDrawOpCount(DASH_MODE.TRANSITION_TEXT_AND_CIRCLE));
+	}
+
+	public void testRestoredTransitionScalesTheText() throws Exception {
+		//A restored transition never drew a DOWNLOAD frame, so the text has to scale down from the size fitted to the progress
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.setShowProgressText(true);
+		renderer.setScaleTextOnTransition(true);
+		renderer.resumeTransition(DASH_MODE.SUCCESS, 0.5f, 0);
+		DashSpinnerTicker.getInstance().doFrame(System.nanoTime());
+		renderer.draw(mCanvas);
+
+		//Ring, circle, one atlas draw per character of "50%"
+		assertEquals(5, renderer.getDrawOpCount(DASH_MODE.TRANSITION_TEXT_AND_CIRCLE));
+	}
+
+	public void testTransitionLine() throws Exception {
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.resumeTransition(DASH_MODE.FAILURE, 1.0f, PHASE_NANOS + (PHASE_NANOS / 2));
+		DashSpinnerTicker.getInstance().doFrame(System.nanoTime());
+		assertEquals(DASH_MODE.TRANSITION_LINE, renderer.getDashMode());
+		renderer.draw(mCanvas);
+
+		//Ring, circle, line
+		assertEquals(3, renderer.getDrawOpCount(DASH_MODE.TRANSITION_LINE));
+	}
+
+	public void testSuccess() throws Exception {
+		//Ring, circle, one drawLines for the tick
+		assertEquals(3, getResultDrawOpCount(DASH_MODE.SUCCESS));
+	}
+
+	public void testFailure() throws Exception {
+		//Ring, circle, one drawLines for the cross
+		assertEquals(3, getResultDrawOpCount(DASH_MODE.FAILURE));
+	}
+
+	public void testUnknown() throws Exception {
+		//Ring, circle, one drawLines for the line of the exclamation and a circle for its dot
+		assertEquals(4, getResultDrawOpCount(DASH_MODE.UNKNOWN));
+	}
+
+	/**
+	 * Draw a result and get the draw ops of its frame
+	 */
+	private int getResultDrawOpCount(DASH_MODE resultMode) {
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.setState(resultMode, 1.0f);
+		renderer.draw(mCanvas);
+		return renderer.getDrawOpCount(resultMode);
+	}
+
+	/**
+	 * Create a renderer of the test size, without a host
+	 */
+	private DashSpinnerRenderer createRenderer() {
+		DashSpinnerRenderer renderer = new DashSpinnerRenderer(getContext(), null, new DashSpinnerRenderer.Callback() {
+			@Override
+			public void invalidateRenderer() {
+			}
+		});
+		renderer.setSize(SPINNER_SIZE, SPINNER_SIZE);
+		return renderer;
+	}
+}
@@ -0,0 +1,68 @@
+package com.abysmel.dashspinner;
+
+import android.os.Looper;
+import android.test.AndroidTestCase;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import com.abysmel.dashspinner.test.R;
+
+/**
+ * Measures how long it takes to inflate a layout of DashSpinners, with the attributes resolved for every spinner
+ * (before) and with the resolved attributes shared (after). The layout holds nothing but the spinners, so that the
+ * time is theirs
+ */
+@SuppressWarnings("deprecation")
+public class DashSpinnerInflateBenchmarkTest extends AndroidTestCase {
+
+	private static final String TAG           = "DashSpinnerInflateBenchmarkTest";
+	private static final int    INFLATE_COUNT = 20;
+	private static final int    WARMUP_COUNT  = 5;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		//The spinner creates a Handler, so it needs a looper on the test thread
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		DashSpinnerAttributes.setCacheEnabled(true);
+		super.tearDown();
+	}
+
+	public void testInflateTime() throws Exception {
+		LayoutInflater inflater = LayoutInflater.from(getContext());
+
+		//Let the class loading and the shared typeface be out of the measurements, on both paths
+		DashSpinnerAttributes.setCacheEnabled(false);
+		inflateSpinners(inflater, WARMUP_COUNT);
+		long nUncachedNanos = inflateSpinners(inflater, INFLATE_COUNT);
+
+		DashSpinnerAttributes.setCacheEnabled(true);
+		inflateSpinners(inflater, WARMUP_COUNT);
+		long nCachedNanos = inflateSpinners(inflater, INFLATE_COUNT);
+
+		int nSpinnerCount = ((ViewGroup) inflater.inflate(R.layout.benchmark_dash_spinners, null, false)).getChildCount();
+		Log.i(TAG, "Inflated " + nSpinnerCount + " spinners " + INFLATE_COUNT + " times in " + (nUncachedNanos / 1000) +
+				" us resolving their attributes, and in " + (nCachedNanos / 1000) + " us sharing them");
+	}
+
+	/**
+	 * Inflate the layout of spinners a number of times
+	 *
+	 * @return
+	 * 		The time it took, in nanoseconds
+	 */
+	private static long inflateSpinners(LayoutInflater inflater, int nCount) {
+		long nStart = System.nanoTime();
+		for (int nIndex = 0; nIndex < nCount; nIndex++) {
+			inflater.inflate(R.layout.benchmark_dash_spinners, null, false);
+		}
+		return System.nanoTime() - nStart;
+	}
+}
@@ -0,0 +1,97 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.os.Looper;
+import android.test.AndroidTestCase;
+import android.view.View;
+
+import com.abysmel.dashspinner.DashSpinner.DASH_MODE;
+
+/**
+ * Verifies that spinners share their immutable resources, and that creating and drawing one more spinner stays within
+ * a memory budget, so that a screen can afford many of them
+ */
+@SuppressWarnings("deprecation")
+public class DashSpinnerMemoryTest extends AndroidTestCase {
+
+	private static final int SPINNER_SIZE                    = 150;
+	private static final int SPINNER_COUNT                   = 100;
+	private static final int MAX_ALLOCATED_BYTES_PER_SPINNER = 32 * 1024;        //A spinner sized bitmap of its own would be 90 KB
+
+	private Canvas mCanvas = null;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		//The spinner creates a Handler, so it needs a looper on the test thread
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+
+		mCanvas = new Canvas(Bitmap.createBitmap(SPINNER_SIZE, SPINNER_SIZE, Bitmap.Config.ARGB_8888));
+	}
+
+	public void testResourcesAreShared() throws Exception {
+		DashSpinnerRenderer first = createRenderer();
+		DashSpinnerRenderer second = createRenderer();
+
+		assertSame(DashSpinnerAttributes.get(getContext(), null), DashSpinnerAttributes.get(getContext(), null));
+		assertNotNull(first.getGeometry());
+		assertSame(first.getGeometry(), second.getGeometry());
+		assertNotNull(first.getColorTable());
+		assertSame(first.getColorTable(), second.getColorTable());
+		assertSame(first.getTextAtlas(SPINNER_SIZE / 4), second.getTextAtlas(SPINNER_SIZE / 4));
+	}
+
+	/**
+	 * Counts what is allocated rather than the heap delta, which depends on when the collector runs. What a spinner
+	 * allocates bounds what it retains
+	 */
+	public void testAllocatedBytesPerSpinnerStayInBudget() throws Exception {
+		//The first spinner builds the shared typeface, tables, geometry and atlases. They are not per spinner
+		createSpinner();
+
+		DashSpinner[] spinners = new DashSpinner[SPINNER_COUNT];
+		Debug.resetThreadAllocSize();
+		Debug.startAllocCounting();
+		for (int nIndex = 0; nIndex < SPINNER_COUNT; nIndex++) {
+			spinners[nIndex] = createSpinner();
+		}
+		Debug.stopAllocCounting();
+
+		long nBytesPerSpinner = Debug.getThreadAllocSize() / spinners.length;
+		assertTrue("Each spinner allocated " + nBytesPerSpinner + " bytes", nBytesPerSpinner <= MAX_ALLOCATED_BYTES_PER_SPINNER);
+	}
+
+	/**
+	 * Create a renderer of the test size that has drawn a download frame with its progress text
+	 */
+	private DashSpinnerRenderer createRenderer() {
+		DashSpinnerRenderer renderer = new DashSpinnerRenderer(getContext(), null, new DashSpinnerRenderer.Callback() {
+			@Override
+			public void invalidateRenderer() {
+			}
+		});
+		renderer.setShowProgressText(true);
+		renderer.setSize(SPINNER_SIZE, SPINNER_SIZE);
+		renderer.setState(DASH_MODE.DOWNLOAD, 0.5f);
+		renderer.draw(mCanvas);
+		return renderer;
+	}
+
+	/**
+	 * Create a spinner that is laid out and has drawn a download frame with its progress text
+	 */
+	private DashSpinner createSpinner() {
+		DashSpinner dashSpinner = new DashSpinner(getContext());
+		dashSpinner.setShowProgressText(true);
+		int nSpec = View.MeasureSpec.makeMeasureSpec(SPINNER_SIZE, View.MeasureSpec.EXACTLY);
+		dashSpinner.measure(nSpec, nSpec);
+		dashSpinner.layout(0, 0, SPINNER_SIZE, SPINNER_SIZE);
+		dashSpinner.setState(DashSpinner.DASH_MODE.DOWNLOAD, 0.5f);
+		dashSpinner.onDraw(mCanvas);
+		return dashSpinner;
+	}
+}
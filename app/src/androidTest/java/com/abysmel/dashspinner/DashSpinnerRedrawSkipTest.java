@@ -0,0 +1,123 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.test.AndroidTestCase;
+
+import com.abysmel.dashspinner.DashSpinner.DASH_MODE;
+
+/**
+ * Verifies that progress and arc changes too small to change a pixel do not invalidate the host while the frame
+ * clock drives the arc, and that they are counted as skipped. When the arc moves on each draw, every progress
+ * change is a new frame
+ */
+@SuppressWarnings("deprecation")
+public class DashSpinnerRedrawSkipTest extends AndroidTestCase {
+
+	private static final int   SPINNER_SIZE    = 300;
+	private static final int   UPDATE_COUNT    = 100;
+	private static final float PROGRESS_STEP   = 0.0000001f;        //Far below a pixel of radius, an alpha step and a percent
+	private static final long  NANOS_PER_MILLI = 1000000L;
+
+	private Canvas mCanvas = null;
+	private int mnInvalidations = 0;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		//The renderer creates a Handler, so it needs a looper on the test thread
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+
+		mCanvas = new Canvas(Bitmap.createBitmap(SPINNER_SIZE, SPINNER_SIZE, Bitmap.Config.ARGB_8888));
+		mnInvalidations = 0;
+	}
+
+	public void testProgressBelowOneQuantumIsSkipped() throws Exception {
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.setArcAngularVelocity(90.0f);
+		renderer.setShowProgressText(true);
+		renderer.setState(DASH_MODE.DOWNLOAD, 0.5f);
+		renderer.draw(mCanvas);
+
+		long nRequests = renderer.getRedrawRequestCount();
+		long nSkipped = renderer.getSkippedRedrawCount();
+		int nInvalidations = mnInvalidations;
+		for (int nUpdate = 1; nUpdate <= UPDATE_COUNT; nUpdate++) {
+			renderer.setProgress(0.5f + (nUpdate * PROGRESS_STEP));
+			renderer.drainCommands();
+		}
+
+		assertEquals(nRequests + UPDATE_COUNT, renderer.getRedrawRequestCount());
+		assertEquals(nSkipped + UPDATE_COUNT, renderer.getSkippedRedrawCount());
+		assertEquals(nInvalidations, mnInvalidations);
+
+		//A whole percent more is a new frame
+		renderer.setProgress(0.51f);
+		renderer.drainCommands();
+		assertEquals(nSkipped + UPDATE_COUNT, renderer.getSkippedRedrawCount());
+		assertEquals(nInvalidations + 1, mnInvalidations);
+
+		renderer.stopArcClock();
+	}
+
+	public void testProgressIsNotSkippedWhenTheArcMovesOnEachDraw() throws Exception {
+		//The arc moves on each draw, which is the default, so the same progress is not the same frame
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.setShowProgressText(true);
+		renderer.setState(DASH_MODE.DOWNLOAD, 0.5f);
+		renderer.draw(mCanvas);
+
+		long nRequests = renderer.getRedrawRequestCount();
+		long nSkipped = renderer.getSkippedRedrawCount();
+		int nInvalidations = mnInvalidations;
+		for (int nUpdate = 1; nUpdate <= UPDATE_COUNT; nUpdate++) {
+			renderer.setProgress(0.5f + (nUpdate * PROGRESS_STEP));
+			renderer.drainCommands();
+		}
+
+		assertEquals(nRequests + UPDATE_COUNT, renderer.getRedrawRequestCount());
+		assertEquals(nSkipped, renderer.getSkippedRedrawCount());
+		assertEquals(nInvalidations + UPDATE_COUNT, mnInvalidations);
+	}
+
+	public void testArcBelowOneQuantumIsSkipped() throws Exception {
+		//90 degrees per second at 50% progress moves the arc 0.045 degrees per millisecond
+		DashSpinnerRenderer renderer = createRenderer();
+		renderer.setArcAngularVelocity(90.0f);
+		renderer.setState(DASH_MODE.DOWNLOAD, 0.5f);
+		renderer.draw(mCanvas);
+
+		long nSkipped = renderer.getSkippedRedrawCount();
+		int nInvalidations = mnInvalidations;
+		long nFrameTime = System.nanoTime();
+		DashSpinnerTicker.getInstance().doFrame(nFrameTime);
+		DashSpinnerTicker.getInstance().doFrame(nFrameTime + NANOS_PER_MILLI);
+		DashSpinnerTicker.getInstance().doFrame(nFrameTime + (2 * NANOS_PER_MILLI));
+		assertEquals(nSkipped + 3, renderer.getSkippedRedrawCount());
+		assertEquals(nInvalidations, mnInvalidations);
+
+		//50 milliseconds more move it by 2.25 degrees
+		DashSpinnerTicker.getInstance().doFrame(nFrameTime + (52 * NANOS_PER_MILLI));
+		assertEquals(nSkipped + 3, renderer.getSkippedRedrawCount());
+		assertEquals(nInvalidations + 1, mnInvalidations);
+
+		renderer.stopArcClock();
+	}
+
+	/**
+	 * Create a renderer of the test size that counts the invalidations of its host
+	 */
+	private DashSpinnerRenderer createRenderer() {
+		DashSpinnerRenderer renderer = new DashSpinnerRenderer(getContext(), null, new DashSpinnerRenderer.Callback() {
+			@Override
+			public void invalidateRenderer() {
+				mnInvalidations++;
+			}
+		});
+		renderer.setSize(SPINNER_SIZE, SPINNER_SIZE);
+		return renderer;
+	}
+}
@@ -0,0 +1,78 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Looper;
+import android.test.AndroidTestCase;
+
+import com.abysmel.dashspinner.DashSpinner.DASH_MODE;
+
+/**
+ * Verifies that a state set at once takes a progress outside of 0 to 1 the way setProgress does, by clamping it,
+ * so that restored or caller supplied values draw instead of indexing past the per-percent tables
+ */
+@SuppressWarnings("deprecation")
+public class DashSpinnerStateTest extends AndroidTestCase {
+
+	private static final int SPINNER_SIZE = 300;
+
+	private Canvas mCanvas = null;
+	private DashSpinnerRenderer mRenderer = null;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		//The renderer creates a Handler, so it needs a looper on the test thread
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+
+		mCanvas = new Canvas(Bitmap.createBitmap(SPINNER_SIZE, SPINNER_SIZE, Bitmap.Config.ARGB_8888));
+		mRenderer = new DashSpinnerRenderer(getContext(), null, new DashSpinnerRenderer.Callback() {
+			@Override
+			public void invalidateRenderer() {
+			}
+		});
+		mRenderer.setShowProgressText(true);
+		mRenderer.setScaleTextOnTransition(true);
+		mRenderer.setSize(SPINNER_SIZE, SPINNER_SIZE);
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		mRenderer.suspend();
+		super.tearDown();
+	}
+
+	public void testDownloadProgressIsClamped() throws Exception {
+		mRenderer.setState(DASH_MODE.DOWNLOAD, -0.5f);
+		assertEquals(0.0f, mRenderer.getProgress());
+		mRenderer.draw(mCanvas);
+
+		mRenderer.setState(DASH_MODE.DOWNLOAD, 1.5f);
+		assertEquals(1.0f, mRenderer.getProgress());
+		mRenderer.draw(mCanvas);
+	}
+
+	public void testResultProgressIsClamped() throws Exception {
+		mRenderer.setState(DASH_MODE.SUCCESS, -0.5f);
+		assertEquals(0.0f, mRenderer.getProgress());
+		mRenderer.draw(mCanvas);
+
+		mRenderer.setState(DASH_MODE.FAILURE, 1.5f);
+		assertEquals(1.0f, mRenderer.getProgress());
+		mRenderer.draw(mCanvas);
+	}
+
+	public void testResumedTransitionProgressIsClamped() throws Exception {
+		mRenderer.resumeTransition(DASH_MODE.UNKNOWN, 1.5f, 0);
+		assertEquals(1.0f, mRenderer.getProgress());
+		DashSpinnerTicker.getInstance().doFrame(System.nanoTime());
+		mRenderer.draw(mCanvas);
+
+		mRenderer.resumeTransition(DASH_MODE.UNKNOWN, -0.5f, 0);
+		assertEquals(0.0f, mRenderer.getProgress());
+		DashSpinnerTicker.getInstance().doFrame(System.nanoTime());
+		mRenderer.draw(mCanvas);
+	}
+}
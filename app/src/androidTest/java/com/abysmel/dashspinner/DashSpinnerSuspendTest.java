@@ -0,0 +1,107 @@
+package com.abysmel.dashspinner;
+
+import android.os.Looper;
+import android.test.AndroidTestCase;
+
+import com.abysmel.dashspinner.DashSpinner.DASH_MODE;
+
+/**
+ * Verifies that a suspended spinner still applies its commands and still ends its transition on time, and that a
+ * resumed transition carries on from the time that has passed
+ */
+@SuppressWarnings("deprecation")
+public class DashSpinnerSuspendTest extends AndroidTestCase {
+
+	private static final int  SPINNER_SIZE          = 300;
+	private static final long PHASE_NANOS           = 400000000L;             //The duration of each phase of the transition
+	private static final long TRANSITION_END_NANOS  = PHASE_NANOS * 4;
+
+	private DashSpinnerRenderer mRenderer = null;
+	private DASH_MODE mDoneMode = null;
+	private int mnDoneCount = 0;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		//The renderer creates a Handler, so it needs a looper on the test thread
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+
+		mRenderer = new DashSpinnerRenderer(getContext(), null, new DashSpinnerRenderer.Callback() {
+			@Override
+			public void invalidateRenderer() {
+			}
+		});
+		mRenderer.setSize(SPINNER_SIZE, SPINNER_SIZE);
+		mRenderer.setOnDownloadIntimationListener(new DashSpinner.OnDownloadIntimationListener() {
+			@Override
+			public void onDownloadIntimationDone(DASH_MODE dashMode) {
+				mDoneMode = dashMode;
+				mnDoneCount++;
+			}
+		});
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		mRenderer.suspend();
+		super.tearDown();
+	}
+
+	public void testCommandsSetWhileSuspendedAreApplied() throws Exception {
+		//A progress is pending when the host goes away
+		mRenderer.setProgress(0.2f);
+		mRenderer.suspend();
+		assertEquals(DASH_MODE.DOWNLOAD, mRenderer.getDashMode());
+		assertEquals(0.2f, mRenderer.getProgress());
+
+		//A progress set while suspended is drained on the next frame, and not coalesced into a drain that never comes
+		long nCoalesced = mRenderer.getCoalescedProgressUpdateCount();
+		mRenderer.setProgress(0.7f);
+		assertEquals(nCoalesced, mRenderer.getCoalescedProgressUpdateCount());
+		DashSpinnerTicker.getInstance().doFrame(System.nanoTime());
+		assertEquals(0.7f, mRenderer.getProgress());
+
+		mRenderer.resume();
+		assertEquals(0.7f, mRenderer.getProgress());
+	}
+
+	public void testTransitionEndsWhileSuspended() throws Exception {
+		mRenderer.setState(DASH_MODE.DOWNLOAD, 0.5f);
+		mRenderer.suspend();
+		mRenderer.showSuccess();
+
+		long nStartNanos = System.nanoTime();
+		DashSpinnerTicker.getInstance().doFrame(nStartNanos);
+		assertEquals(DASH_MODE.TRANSITION_TEXT_AND_CIRCLE, mRenderer.getDashMode());
+		assertEquals(0, mnDoneCount);
+
+		//The listener is told when the transition ends, although the host is still hidden
+		DashSpinnerTicker.getInstance().doFrame(nStartNanos + TRANSITION_END_NANOS);
+		assertEquals(1, mnDoneCount);
+		assertEquals(DASH_MODE.SUCCESS, mDoneMode);
+		assertEquals(DASH_MODE.SUCCESS, mRenderer.getDashMode());
+		assertEquals(DASH_MODE.NONE, mRenderer.getTransitionResultMode());
+	}
+
+	public void testResumedTransitionCatchesUp() throws Exception {
+		mRenderer.setState(DASH_MODE.DOWNLOAD, 0.5f);
+		mRenderer.showFailure();
+
+		long nStartNanos = System.nanoTime();
+		DashSpinnerTicker.getInstance().doFrame(nStartNanos);
+		mRenderer.suspend();
+
+		//Hidden for half of the transition
+		DashSpinnerTicker.getInstance().doFrame(nStartNanos + (TRANSITION_END_NANOS / 2));
+		mRenderer.resume();
+		assertEquals(DASH_MODE.FAILURE, mRenderer.getDashMode());
+		assertEquals(0, mnDoneCount);
+
+		//The first frames after resuming carry on from the time that has passed, not from where it was suspended
+		DashSpinnerTicker.getInstance().doFrame(nStartNanos + TRANSITION_END_NANOS);
+		assertEquals(1, mnDoneCount);
+		assertEquals(DASH_MODE.FAILURE, mDoneMode);
+	}
+}
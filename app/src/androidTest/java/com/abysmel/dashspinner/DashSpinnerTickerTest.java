@@ -0,0 +1,96 @@
+package com.abysmel.dashspinner;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.test.AndroidTestCase;
+
+import com.abysmel.dashspinner.DashSpinner.DASH_MODE;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Verifies that a spinner hosted on another looper thread is ticked by the ticker of that thread, and never touches
+ * the ticker of the thread that other spinners run on
+ */
+@SuppressWarnings("deprecation")
+public class DashSpinnerTickerTest extends AndroidTestCase {
+
+	private static final int  SPINNER_SIZE    = 300;
+	private static final long TIMEOUT_SECONDS = 5;
+
+	private HandlerThread mHandlerThread = null;
+	private Handler mHandler = null;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+
+		if (Looper.myLooper() == null)
+			Looper.prepare();
+
+		mHandlerThread = new HandlerThread("DashSpinnerTickerTest");
+		mHandlerThread.start();
+		mHandler = new Handler(mHandlerThread.getLooper());
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		mHandlerThread.quit();
+		super.tearDown();
+	}
+
+	public void testEachLooperThreadHasItsOwnTicker() throws Exception {
+		DashSpinnerTicker ticker = DashSpinnerTicker.getInstance();
+		assertSame(ticker, DashSpinnerTicker.getInstance());
+		int nClientCount = ticker.getClientCount();
+
+		//A spinner on the other thread that starts its arc clock
+		final AtomicReference<DashSpinnerTicker> otherTicker = new AtomicReference<>();
+		final AtomicInteger nOtherClientCount = new AtomicInteger();
+		final AtomicReference<DashSpinnerRenderer> renderer = new AtomicReference<>();
+		final CountDownLatch startedLatch = new CountDownLatch(1);
+		mHandler.post(new Runnable() {
+			@Override
+			public void run() {
+				renderer.set(createRenderer());
+				renderer.get().setArcAngularVelocity(90.0f);
+				renderer.get().setState(DASH_MODE.DOWNLOAD, 0.5f);
+				otherTicker.set(DashSpinnerTicker.getInstance());
+				nOtherClientCount.set(otherTicker.get().getClientCount());
+				startedLatch.countDown();
+			}
+		});
+		assertTrue(startedLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+
+		assertNotSame(ticker, otherTicker.get());
+		assertEquals(1, nOtherClientCount.get());
+		assertEquals(nClientCount, ticker.getClientCount());
+
+		final CountDownLatch stoppedLatch = new CountDownLatch(1);
+		mHandler.post(new Runnable() {
+			@Override
+			public void run() {
+				renderer.get().suspend();
+				stoppedLatch.countDown();
+			}
+		});
+		assertTrue(stoppedLatch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+	}
+
+	/**
+	 * Create a renderer of the test size, without a host, on the calling thread
+	 */
+	private DashSpinnerRenderer createRenderer() {
+		DashSpinnerRenderer renderer = new DashSpinnerRenderer(getContext(), null, new DashSpinnerRenderer.Callback() {
+			@Override
+			public void invalidateRenderer() {
+			}
+		});
+		renderer.setSize(SPINNER_SIZE, SPINNER_SIZE);
+		return renderer;
+	}
+}
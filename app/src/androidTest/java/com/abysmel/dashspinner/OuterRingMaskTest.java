@@ -0,0 +1,50 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.test.AndroidTestCase;
+
+/**
+ * Verifies that the outer ring blitted from its mask covers the same pixels as the ring stroked directly, and that
+ * spinners of the same geometry share one mask
+ */
+@SuppressWarnings("deprecation")
+public class OuterRingMaskTest extends AndroidTestCase {
+
+	private static final int   SPINNER_SIZE    = 301;
+	private static final float RING_WIDTH      = 7.5f;
+	private static final int   RING_COLOR      = 0xFF3F51B5;
+	private static final int   COLOR_TOLERANCE = 2;        //Blending the coverage through the bitmap may round differently
+
+	public void testMaskMatchesTheStrokedRing() throws Exception {
+		DashSpinnerGeometry geometry = DashSpinnerGeometry.get(SPINNER_SIZE, SPINNER_SIZE, RING_WIDTH, 5.0f, 6.0f, 4.0f, 10.0f);
+		Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+		paint.setStyle(Paint.Style.STROKE);
+		paint.setStrokeWidth(RING_WIDTH);
+		paint.setColor(RING_COLOR);
+
+		Bitmap strokedBitmap = Bitmap.createBitmap(SPINNER_SIZE, SPINNER_SIZE, Bitmap.Config.ARGB_8888);
+		new Canvas(strokedBitmap).drawCircle(geometry.mnCenterX, geometry.mnCenterY, geometry.mnRingRadius, paint);
+
+		Bitmap maskedBitmap = Bitmap.createBitmap(SPINNER_SIZE, SPINNER_SIZE, Bitmap.Config.ARGB_8888);
+		OuterRingMask.get(geometry).draw(new Canvas(maskedBitmap), geometry.mnCenterX, geometry.mnCenterY, paint);
+
+		for (int nY = 0; nY < SPINNER_SIZE; nY++) {
+			for (int nX = 0; nX < SPINNER_SIZE; nX++) {
+				int nStroked = strokedBitmap.getPixel(nX, nY);
+				int nMasked = maskedBitmap.getPixel(nX, nY);
+				assertTrue("Pixel " + nX + ", " + nY + " differs", (Math.abs(Color.alpha(nStroked) - Color.alpha(nMasked)) <= COLOR_TOLERANCE) &&
+						(Math.abs(Color.red(nStroked) - Color.red(nMasked)) <= COLOR_TOLERANCE) &&
+						(Math.abs(Color.green(nStroked) - Color.green(nMasked)) <= COLOR_TOLERANCE) &&
+						(Math.abs(Color.blue(nStroked) - Color.blue(nMasked)) <= COLOR_TOLERANCE));
+			}
+		}
+	}
+
+	public void testMaskIsShared() throws Exception {
+		DashSpinnerGeometry geometry = DashSpinnerGeometry.get(SPINNER_SIZE, SPINNER_SIZE, RING_WIDTH, 5.0f, 6.0f, 4.0f, 10.0f);
+		assertSame(OuterRingMask.get(geometry), OuterRingMask.get(geometry));
+	}
+}
@@ -0,0 +1,220 @@
+package com.abysmel.dashspinner;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Aggregates the progress of a download that is split into several chunks, each downloaded on its own thread.
+ *
+ * Every chunk reports its bytes into its own counter. The counters are spread apart in memory, so that
+ * writers of different chunks never share a cache line and do not contend with each other the way they
+ * would on a single shared AtomicLong. The total is only summed when it is read, which the
+ * {@link DashSpinner} does once per frame after {@link DashSpinner#setProgressAggregator} is called.
+ *
+ * The total progress is weighted by the size of each chunk, i.e. it is the number of bytes downloaded over
+ * the total number of bytes.
+ */
+public class ChunkProgressAggregator {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * The distance between two chunk counters in the array. 16 longs (128 bytes) keeps every counter on
+	 * its own cache line, even with adjacent line prefetching
+	 */
+	private static final int SLOT_STRIDE = 16;
+
+	/**
+	 * The bytes downloaded for each chunk, at index (chunk * SLOT_STRIDE)
+	 */
+	private final AtomicLongArray mnChunkBytes;
+
+	/**
+	 * The size of each chunk in bytes
+	 */
+	private final long[] mnChunkSizes;
+
+	/**
+	 * The total size in bytes
+	 */
+	private final long mnTotalSize;
+
+	/**
+	 * If bytes have been reported since the progress was last read by the listener
+	 */
+	private final AtomicBoolean mbChanged = new AtomicBoolean(false);
+
+	/**
+	 * The listener told about the first change after each read
+	 */
+	private final AtomicReference<OnChunkProgressListener> mOnChunkProgressListener = new AtomicReference<>();
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Constructor
+	 *
+	 * @param chunkSizes
+	 * 		The size of each chunk in bytes
+	 *
+	 * @author Melvin Lobo
+	 */
+	public ChunkProgressAggregator(long... chunkSizes) {
+		if ((chunkSizes == null) || (chunkSizes.length == 0))
+			throw new IllegalArgumentException("At least one chunk is needed");
+
+		long nTotalSize = 0;
+		for (long nChunkSize : chunkSizes) {
+			if (nChunkSize < 0)
+				throw new IllegalArgumentException("Chunk sizes cannot be negative");
+			nTotalSize += nChunkSize;
+		}
+
+		mnChunkSizes = chunkSizes.clone();
+		mnTotalSize = nTotalSize;
+		mnChunkBytes = new AtomicLongArray(chunkSizes.length * SLOT_STRIDE);
+	}
+
+	/**
+	 * @return
+	 * 		The number of chunks
+	 *
+	 * @author Melvin Lobo
+	 */
+	public int getChunkCount() {
+		return mnChunkSizes.length;
+	}
+
+	/**
+	 * Report bytes downloaded for a chunk. Can be called from any thread
+	 *
+	 * @param nChunk
+	 * 		The index of the chunk
+	 * @param nBytes
+	 * 		The number of bytes downloaded since the last report for this chunk
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void addBytes(int nChunk, long nBytes) {
+		mnChunkBytes.addAndGet(nChunk * SLOT_STRIDE, nBytes);
+		notifyChanged();
+	}
+
+	/**
+	 * Set the total bytes downloaded for a chunk, for example when a chunk is restarted. Can be called from any thread
+	 *
+	 * @param nChunk
+	 * 		The index of the chunk
+	 * @param nBytes
+	 * 		The number of bytes downloaded for this chunk
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setBytes(int nChunk, long nBytes) {
+		mnChunkBytes.set(nChunk * SLOT_STRIDE, nBytes);
+		notifyChanged();
+	}
+
+	/**
+	 * Get the progress of the whole download. Each chunk counts for at most its own size
+	 *
+	 * @return
+	 * 		The progress between 0 and 1
+	 *
+	 * @author Melvin Lobo
+	 */
+	public float getProgress() {
+		if (mnTotalSize == 0)
+			return 0.0f;
+
+		long nDownloaded = 0;
+		for (int nChunk = 0; nChunk < mnChunkSizes.length; nChunk++) {
+			long nBytes = mnChunkBytes.get(nChunk * SLOT_STRIDE);
+			nDownloaded += (nBytes < 0) ? 0 : ((nBytes > mnChunkSizes[nChunk]) ? mnChunkSizes[nChunk] : nBytes);
+		}
+		return (float) ((double) nDownloaded / mnTotalSize);
+	}
+
+	/**
+	 * Clear the bytes of all the chunks
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void reset() {
+		for (int nChunk = 0; nChunk < mnChunkSizes.length; nChunk++) {
+			mnChunkBytes.set(nChunk * SLOT_STRIDE, 0);
+		}
+		notifyChanged();
+	}
+
+	/**
+	 * Set the listener that is told about the first change after each {@link #consumeChanged()}
+	 *
+	 * @param listener
+	 * 		The listener, or null
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setOnChunkProgressListener(OnChunkProgressListener listener) {
+		mOnChunkProgressListener.set(listener);
+	}
+
+	/**
+	 * Clear the listener, but only if it is still the given one. A spinner that lets go of the aggregator must not
+	 * clear the listener of another spinner that has been bound to it since, for example in a recycled list row
+	 *
+	 * @param listener
+	 * 		The listener to clear
+	 *
+	 * @return
+	 * 		true if the listener was cleared
+	 *
+	 * @author Melvin Lobo
+	 */
+	boolean clearOnChunkProgressListener(OnChunkProgressListener listener) {
+		return mOnChunkProgressListener.compareAndSet(listener, null);
+	}
+
+	/**
+	 * Clear the changed flag, so that the next report notifies the listener again
+	 *
+	 * @return
+	 * 		true if bytes were reported since the last call
+	 *
+	 * @author Melvin Lobo
+	 */
+	boolean consumeChanged() {
+		return mbChanged.getAndSet(false);
+	}
+
+	/**
+	 * Tell the listener about the first change since the last read. The flag is read before it is set,
+	 * so that the writers only share a read-mostly cache line while a change is already pending
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void notifyChanged() {
+		if (!mbChanged.get() && mbChanged.compareAndSet(false, true)) {
+			OnChunkProgressListener listener = mOnChunkProgressListener.get();
+			if (listener != null)
+				listener.onChunkProgress();
+		}
+	}
+
+	//////////////////////////////////////// INTERFACE /////////////////////////////////////////
+
+	/**
+	 * Interface to listen for the first change in progress after each read
+	 *
+	 * @author Melvin Lobo
+	 */
+	interface OnChunkProgressListener {
+		/**
+		 * Notify that bytes were reported. Called on the thread that reported them
+		 *
+		 * @author Melvin Lobo
+		 */
+		void onChunkProgress();
+	}
+}
@@ -0,0 +1,186 @@
+package com.abysmel.dashspinner;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A lock-free, multi producer command channel for the Dash Spinner, packed into a single atomic word.
+ *
+ * Any thread can offer the latest progress or a result command (SUCCESS, FAILURE, UNKNOWN). The owner
+ * drains the word once per frame on the UI thread and applies what it finds. The word holds:
+ *
+ * bits 0..31   The latest progress (float bits)
+ * bits 32..33  The pending result command
+ * bit  34      Progress pending
+ * bit  35      Drain scheduled
+ *
+ * Every offer is a single compare-and-set on the word, so the order of the commands is the order in which
+ * their CAS succeeded. A drain always applies the progress before the result command. Progress offered
+ * after a result command is dropped, just like setting progress after a transition has started.
+ */
+final class DashCommandWord {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * The result commands
+	 */
+	static final int COMMAND_NONE    = 0;
+	static final int COMMAND_SUCCESS = 1;
+	static final int COMMAND_FAILURE = 2;
+	static final int COMMAND_UNKNOWN = 3;
+
+	/**
+	 * The result of an offer
+	 */
+	static final int OFFER_SCHEDULE  = 0;        //The offer was accepted and the caller must schedule a drain
+	static final int OFFER_COALESCED = 1;        //The offer was accepted into a drain that is already scheduled
+	static final int OFFER_DROPPED   = 2;        //The offer was dropped as a result command is already pending
+
+	/**
+	 * The layout of the word
+	 */
+	private static final long PROGRESS_MASK    = 0xFFFFFFFFL;
+	private static final int  COMMAND_SHIFT    = 32;
+	private static final long COMMAND_MASK     = 0x3L << COMMAND_SHIFT;
+	private static final long PROGRESS_PENDING = 1L << 34;
+	private static final long DRAIN_SCHEDULED  = 1L << 35;
+
+	/**
+	 * The word
+	 */
+	private final AtomicLong mWord = new AtomicLong(0);
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Offer the latest progress. Can be called from any thread
+	 *
+	 * @param nProgress
+	 * 		The progress between 0 and 1
+	 *
+	 * @return
+	 * 		One of {@link #OFFER_SCHEDULE}, {@link #OFFER_COALESCED} or {@link #OFFER_DROPPED}
+	 *
+	 * @author Melvin Lobo
+	 */
+	int offerProgress(float nProgress) {
+		long nProgressBits = Float.floatToRawIntBits(nProgress) & PROGRESS_MASK;
+		while (true) {
+			long nWord = mWord.get();
+			if ((nWord & COMMAND_MASK) != 0)
+				return OFFER_DROPPED;
+
+			long nNewWord = (nWord & ~PROGRESS_MASK) | nProgressBits | PROGRESS_PENDING | DRAIN_SCHEDULED;
+			if (mWord.compareAndSet(nWord, nNewWord))
+				return ((nWord & DRAIN_SCHEDULED) == 0) ? OFFER_SCHEDULE : OFFER_COALESCED;
+		}
+	}
+
+	/**
+	 * Offer a result command. A later command replaces an earlier one that has not been drained yet.
+	 * Can be called from any thread
+	 *
+	 * @param nCommand
+	 * 		One of {@link #COMMAND_SUCCESS}, {@link #COMMAND_FAILURE} or {@link #COMMAND_UNKNOWN}
+	 *
+	 * @return
+	 * 		true if the caller must schedule a drain
+	 *
+	 * @author Melvin Lobo
+	 */
+	boolean offerCommand(int nCommand) {
+		long nCommandBits = ((long) nCommand << COMMAND_SHIFT) & COMMAND_MASK;
+		while (true) {
+			long nWord = mWord.get();
+			long nNewWord = (nWord & ~COMMAND_MASK) | nCommandBits | DRAIN_SCHEDULED;
+			if (mWord.compareAndSet(nWord, nNewWord))
+				return (nWord & DRAIN_SCHEDULED) == 0;
+		}
+	}
+
+	/**
+	 * Ask for a drain without offering anything, for progress that the owner reads from elsewhere when it drains.
+	 * Can be called from any thread
+	 *
+	 * @return
+	 * 		true if the caller must schedule a drain
+	 *
+	 * @author Melvin Lobo
+	 */
+	boolean requestDrain() {
+		while (true) {
+			long nWord = mWord.get();
+			if ((nWord & DRAIN_SCHEDULED) != 0)
+				return false;
+			if (mWord.compareAndSet(nWord, nWord | DRAIN_SCHEDULED))
+				return true;
+		}
+	}
+
+	/**
+	 * Take everything that is pending and clear the word, so that the next offer schedules a new drain.
+	 * Called once per frame by the owner
+	 *
+	 * @return
+	 * 		The drained word, to be read with {@link #hasProgress}, {@link #getProgress} and {@link #getCommand}
+	 *
+	 * @author Melvin Lobo
+	 */
+	long drain() {
+		while (true) {
+			long nWord = mWord.get();
+
+			//Nothing pending. Skip the CAS, as the owner drains on every frame that it animates
+			if ((nWord & ~PROGRESS_MASK) == 0)
+				return nWord;
+
+			if (mWord.compareAndSet(nWord, nWord & PROGRESS_MASK))
+				return nWord;
+		}
+	}
+
+	/**
+	 * Check if a drain has been scheduled and has not run yet
+	 *
+	 * @return
+	 * 		true if a drain is scheduled
+	 *
+	 * @author Melvin Lobo
+	 */
+	boolean isDrainScheduled() {
+		return (mWord.get() & DRAIN_SCHEDULED) != 0;
+	}
+
+	/**
+	 * Drop anything that is pending
+	 *
+	 * @author Melvin Lobo
+	 */
+	void clear() {
+		mWord.set(0);
+	}
+
+	/**
+	 * @return
+	 * 		true if the drained word holds progress
+	 */
+	static boolean hasProgress(long nWord) {
+		return (nWord & PROGRESS_PENDING) != 0;
+	}
+
+	/**
+	 * @return
+	 * 		The progress in the drained word
+	 */
+	static float getProgress(long nWord) {
+		return Float.intBitsToFloat((int) (nWord & PROGRESS_MASK));
+	}
+
+	/**
+	 * @return
+	 * 		The result command in the drained word, or {@link #COMMAND_NONE}
+	 */
+	static int getCommand(long nWord) {
+		return (int) ((nWord & COMMAND_MASK) >>> COMMAND_SHIFT);
+	}
+}
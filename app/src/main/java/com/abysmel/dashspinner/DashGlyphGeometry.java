@@ -0,0 +1,227 @@
+package com.abysmel.dashspinner;
+
+/**
+ * The end points of the SUCCESS tick, the FAILURE cross and the UNKNOWN exclamation over the progress of their
+ * transition from the horizontal line.
+ *
+ * The trigonometry is evaluated once per size, at GLYPH_TABLE_STEPS + 1 evenly spaced values of the transition
+ * progress, and stored in a single table. A frame then only interpolates linearly between the two entries around
+ * its progress, which is a handful of float multiply-adds instead of up to a dozen double precision sin / cos calls.
+ * With 64 steps the interpolated points are within a hundredth of a pixel of the exact ones for any spinner that fits
+ * on a screen.
+ *
+ * The points are written into a caller supplied array as line segments (x0, y0, x1, y1), so that each glyph
+ * can be drawn with a single {@link android.graphics.Canvas#drawLines} call.
+ */
+final class DashGlyphGeometry {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * Static values
+	 */
+	static final float TICK_SHORT_ARM_RATIO_PERCENT = 0.25f;
+	static final float TICK_LONG_ARM_RATIO_PERCENT  = 0.75f;
+	static final float ARM_ANGLE                    = 45.0f;
+	static final float UNKNOWN_ROTATION_ANGLE       = 90.0f;
+
+	/**
+	 * The number of points in each glyph
+	 */
+	static final int TICK_POINT_COUNT             = 8;        //Two lines: the short arm and the long arm
+	static final int CROSS_POINT_COUNT            = 16;       //Four lines from the center, one in each quadrant
+	static final int EXCLAMATION_POINT_COUNT      = 10;       //Two lines from the center, followed by the center of the dot
+	static final int EXCLAMATION_LINE_POINT_COUNT = 8;        //The two lines of the exclamation, without the dot
+
+	/**
+	 * The resolution of the table
+	 */
+	private static final int GLYPH_TABLE_STEPS = 64;
+
+	/**
+	 * The layout of each entry in the table. The tick is stored as absolute coordinates, the cross and the
+	 * exclamation as offsets from the center, as their arms are symmetric around it
+	 */
+	private static final int TICK_START_SHORT_X  = 0;
+	private static final int TICK_END_SHORT_Y    = 1;
+	private static final int TICK_END_LONG_X     = 2;
+	private static final int TICK_END_LONG_Y     = 3;
+	private static final int CROSS_ARM_X         = 4;
+	private static final int CROSS_ARM_Y         = 5;
+	private static final int EXCLAMATION_ARM_X   = 6;
+	private static final int EXCLAMATION_ARM_Y   = 7;
+	private static final int EXCLAMATION_DOT_X   = 8;
+	private static final int EXCLAMATION_DOT_Y   = 9;
+	private static final int ENTRY_STRIDE        = 10;
+
+	/**
+	 * The table
+	 */
+	private final float[] mnTable = new float[(GLYPH_TABLE_STEPS + 1) * ENTRY_STRIDE];
+
+	/**
+	 * The center of the glyphs
+	 */
+	private float mnCenterX = 0;
+	private float mnCenterY = 0;
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Build the table for a size. Called whenever the size changes, never while drawing
+	 *
+	 * @param nCenterX
+	 * 		The X center of the spinner
+	 * @param nCenterY
+	 * 		The Y center of the spinner
+	 * @param nLineWidth
+	 * 		The length of the line that the glyphs are formed from
+	 * @param nDotDistance
+	 * 		The final distance of the dot of the exclamation from its line
+	 *
+	 * @author Melvin Lobo
+	 */
+	void build(float nCenterX, float nCenterY, float nLineWidth, float nDotDistance) {
+		mnCenterX = nCenterX;
+		mnCenterY = nCenterY;
+
+		float nShortArmLength = TICK_SHORT_ARM_RATIO_PERCENT * nLineWidth;
+		float nLongArmLength = TICK_LONG_ARM_RATIO_PERCENT * nLineWidth;
+		float nArmLength = nLineWidth / 2;
+
+		for (int nStep = 0; nStep <= GLYPH_TABLE_STEPS; nStep++) {
+			double nProgress = (double) nStep / GLYPH_TABLE_STEPS;
+			int nEntry = nStep * ENTRY_STRIDE;
+
+			/*
+			 * The tick. The short arm ends at the center and drops down at ARM_ANGLE, the long arm rises from
+			 * there at -ARM_ANGLE. See DashSpinnerRenderer#drawStateContent for the equations
+			 */
+			double nShortAngle = Math.toRadians(ARM_ANGLE * nProgress);
+			double nLongAngle = Math.toRadians(-ARM_ANGLE * nProgress);
+			double nStartShortX = nCenterX - nShortArmLength * Math.cos(nShortAngle);
+			double nEndShortY = nCenterY + nShortArmLength * Math.sin(nShortAngle);
+			mnTable[nEntry + TICK_START_SHORT_X] = (float) nStartShortX;
+			mnTable[nEntry + TICK_END_SHORT_Y] = (float) nEndShortY;
+			mnTable[nEntry + TICK_END_LONG_X] = (float) (nStartShortX + nLongArmLength * Math.cos(nLongAngle));
+			mnTable[nEntry + TICK_END_LONG_Y] = (float) (nEndShortY + nLongArmLength * Math.sin(nLongAngle));
+
+			/*
+			 * The cross. Each arm is the arm at ARM_ANGLE, mirrored into its quadrant
+			 */
+			double nCrossAngle = Math.toRadians(ARM_ANGLE * nProgress);
+			mnTable[nEntry + CROSS_ARM_X] = (float) (nArmLength * Math.cos(nCrossAngle));
+			mnTable[nEntry + CROSS_ARM_Y] = (float) (nArmLength * Math.sin(nCrossAngle));
+
+			/*
+			 * The exclamation. The line rotates by UNKNOWN_ROTATION_ANGLE and the dot moves away from its end
+			 */
+			double nRotation = Math.toRadians(UNKNOWN_ROTATION_ANGLE * nProgress);
+			double nDotOffset = nArmLength + (nDotDistance * nProgress);
+			mnTable[nEntry + EXCLAMATION_ARM_X] = (float) (nArmLength * Math.cos(nRotation));
+			mnTable[nEntry + EXCLAMATION_ARM_Y] = (float) (nArmLength * Math.sin(nRotation));
+			mnTable[nEntry + EXCLAMATION_DOT_X] = (float) (nDotOffset * Math.cos(nRotation));
+			mnTable[nEntry + EXCLAMATION_DOT_Y] = (float) (nDotOffset * Math.sin(nRotation));
+		}
+	}
+
+	/**
+	 * Get the tick: the short arm followed by the long arm
+	 *
+	 * @param nProgress
+	 * 		The transition progress between 0 and 1
+	 * @param points
+	 * 		The array to write {@link #TICK_POINT_COUNT} points into
+	 *
+	 * @author Melvin Lobo
+	 */
+	void getTick(float nProgress, float[] points) {
+		float nStartShortX = interpolate(nProgress, TICK_START_SHORT_X);
+		float nEndShortY = interpolate(nProgress, TICK_END_SHORT_Y);
+
+		points[0] = nStartShortX;
+		points[1] = mnCenterY;
+		points[2] = mnCenterX;
+		points[3] = nEndShortY;
+		points[4] = mnCenterX;
+		points[5] = nEndShortY;
+		points[6] = interpolate(nProgress, TICK_END_LONG_X);
+		points[7] = interpolate(nProgress, TICK_END_LONG_Y);
+	}
+
+	/**
+	 * Get the cross: four arms from the center, in the quadrants one, two, three and four
+	 *
+	 * @param nProgress
+	 * 		The transition progress between 0 and 1
+	 * @param points
+	 * 		The array to write {@link #CROSS_POINT_COUNT} points into
+	 *
+	 * @author Melvin Lobo
+	 */
+	void getCross(float nProgress, float[] points) {
+		float nArmX = interpolate(nProgress, CROSS_ARM_X);
+		float nArmY = interpolate(nProgress, CROSS_ARM_Y);
+
+		setArm(points, 0, mnCenterX + nArmX, mnCenterY - nArmY);
+		setArm(points, 4, mnCenterX - nArmX, mnCenterY - nArmY);
+		setArm(points, 8, mnCenterX - nArmX, mnCenterY + nArmY);
+		setArm(points, 12, mnCenterX + nArmX, mnCenterY + nArmY);
+	}
+
+	/**
+	 * Get the exclamation: the two halves of its line from the center, followed by the center of its dot
+	 *
+	 * @param nProgress
+	 * 		The transition progress between 0 and 1
+	 * @param points
+	 * 		The array to write {@link #EXCLAMATION_POINT_COUNT} points into
+	 *
+	 * @author Melvin Lobo
+	 */
+	void getExclamation(float nProgress, float[] points) {
+		float nArmX = interpolate(nProgress, EXCLAMATION_ARM_X);
+		float nArmY = interpolate(nProgress, EXCLAMATION_ARM_Y);
+
+		setArm(points, 0, mnCenterX + nArmX, mnCenterY - nArmY);
+		setArm(points, 4, mnCenterX - nArmX, mnCenterY + nArmY);
+		points[8] = mnCenterX - interpolate(nProgress, EXCLAMATION_DOT_X);
+		points[9] = mnCenterY + interpolate(nProgress, EXCLAMATION_DOT_Y);
+	}
+
+	/**
+	 * Write a line from the center to a point
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void setArm(float[] points, int nOffset, float nX, float nY) {
+		points[nOffset] = mnCenterX;
+		points[nOffset + 1] = mnCenterY;
+		points[nOffset + 2] = nX;
+		points[nOffset + 3] = nY;
+	}
+
+	/**
+	 * Interpolate a value of the table at a progress
+	 *
+	 * @param nProgress
+	 * 		The transition progress, clamped to 0..1
+	 * @param nField
+	 * 		The offset of the value in an entry
+	 *
+	 * @return
+	 * 		The interpolated value
+	 *
+	 * @author Melvin Lobo
+	 */
+	private float interpolate(float nProgress, int nField) {
+		float nPosition = ((nProgress < 0.0f) ? 0.0f : ((nProgress > 1.0f) ? 1.0f : nProgress)) * GLYPH_TABLE_STEPS;
+		int nStep = (int) nPosition;
+		if (nStep >= GLYPH_TABLE_STEPS)
+			return mnTable[(GLYPH_TABLE_STEPS * ENTRY_STRIDE) + nField];
+
+		float nFrom = mnTable[(nStep * ENTRY_STRIDE) + nField];
+		float nTo = mnTable[((nStep + 1) * ENTRY_STRIDE) + nField];
+		return nFrom + ((nTo - nFrom) * (nPosition - nStep));
+	}
+}
@@ -0,0 +1,338 @@
+package com.abysmel.dashspinner;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.support.v4.content.ContextCompat;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.WeakHashMap;
+
+/**
+ * The resolved DashSpinner attributes, with their defaults and with every dimension in pixels.
+ *
+ * Resolving the attributes means going through the TypedArray of the styleable and converting the default dimensions,
+ * which is a noticeable part of creating a spinner when a layout inflates many of them. The same DashSpinner
+ * attributes in the same theme and configuration always resolve to the same values, so the resolved values are
+ * cached per theme, keyed by the DashSpinner attributes that are set. Spinners that only differ in their id or layout
+ * parameters therefore resolve their attributes once. The themes are weakly held, so the cache goes away with the
+ * screen that used it. A theme keeps its cache only as long as its configuration does not change, as an activity
+ * that handles configuration changes itself keeps its theme across a change of night mode, density or font scale.
+ *
+ * Looking up the attributes of a spinner allocates no key and no map entry once they are cached: the attribute set is
+ * read into a reused key, which is only copied when the attributes have to be resolved. The values are compared as
+ * the strings that the attribute set gives for them, which it builds for every value that is not a plain string in
+ * the xml, such as a color or a dimension. Those values have no other public raw form to key on.
+ */
+final class DashSpinnerAttributes {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * Static values
+	 */
+	private static final float DEFAULT_START_SPEED   = 20.0f;
+	private static final float DEFAULT_ARC_WIDTH     = 6.0f;
+	private static final float DEFAULT_RING_WIDTH    = 2.0f;
+	private static final float ARC_START_POSITION    = 270.0f;
+	private static final float DEFAULT_ARC_LENGTH    = 90.0f;
+	private static final int   DEFAULT_MAX_TEXT_SIZE = 40;
+	private static final int   TEXT_PADDING          = 8;
+	private static final float STATE_LINE_STROKE     = 4.0f;
+	private static final float UNKNOWN_DOT_DISTANCE  = 10.0f;        //Final distance of the dot from the line forming an exclamation (!)
+
+	/**
+	 * The DashSpinner attributes, sorted, to pick them out of an attribute set
+	 */
+	private static final int[] SORTED_ATTRIBUTES = R.styleable.DashSpinner.clone();
+	static {
+		Arrays.sort(SORTED_ATTRIBUTES);
+	}
+
+	/**
+	 * The resolved attributes, by theme and by the DashSpinner attributes that are set
+	 */
+	private static final WeakHashMap<Resources.Theme, ThemeAttributes> sThemes = new WeakHashMap<>();
+
+	/**
+	 * If the resolved attributes are cached. Only turned off to measure the path that resolves them for every spinner
+	 */
+	private static volatile boolean sbCacheEnabled = true;
+
+	/**
+	 * The key that attribute sets are read into to be looked up. Only used while holding sThemes
+	 */
+	private static final AttributesKey sLookupKey = new AttributesKey();
+
+	/**
+	 * The colors
+	 */
+	final int mOuterRingColor;
+	final int mInnerCircleSuccessColor;
+	final int mInnerCircleFailureColor;
+	final int mInnerCircleUnknownColor;
+	final int mArcColor;
+	final int mTextColorFrom;
+	final int mTextColorTo;
+
+	/**
+	 * The arc
+	 */
+	final float mnArcStartPosition;
+	final float mnStartSpeed;
+	final float mnArcLength;
+	final float mnArcAngularVelocity;
+
+	/**
+	 * The sizes, in pixels
+	 */
+	final float mnArcWidth;
+	final float mnRingWidth;
+	final int mnMaxTextSize;
+	final float mnStateLineStroke;
+	final float mnTextPadding;
+	final float mnUnknownDotDistance;
+
+	/**
+	 * The progress text
+	 */
+	final boolean mbShowProgress;
+	final boolean mbScaleTextOnTransition;
+	final boolean mbGammaCorrectTextBlend;
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Get the resolved attributes of a spinner, resolving them if no spinner in the theme has used the same ones yet
+	 *
+	 * @param context
+	 * 		The context of the spinner
+	 * @param attrs
+	 * 		The attributes defined in the xml, or null
+	 *
+	 * @return
+	 * 		The resolved attributes
+	 *
+	 * @author Melvin Lobo
+	 */
+	static DashSpinnerAttributes get(Context context, AttributeSet attrs) {
+		if (!sbCacheEnabled)
+			return new DashSpinnerAttributes(context, attrs);
+
+		Resources.Theme theme = context.getTheme();
+		Configuration configuration = context.getResources().getConfiguration();
+
+		AttributesKey key;
+		synchronized (sThemes) {
+			sLookupKey.set(attrs);
+			DashSpinnerAttributes attributes = getThemeAttributes(theme, configuration).get(sLookupKey);
+			if (attributes != null)
+				return attributes;
+			key = sLookupKey.copy();
+		}
+
+		DashSpinnerAttributes attributes = new DashSpinnerAttributes(context, attrs);
+		synchronized (sThemes) {
+			getThemeAttributes(theme, configuration).put(key, attributes);
+		}
+		return attributes;
+	}
+
+	/**
+	 * Turn the cache on or off. While it is off, every spinner resolves its attributes, as it did before they were
+	 * cached, and what was cached is dropped
+	 *
+	 * @param bEnabled
+	 * 		true to cache the resolved attributes
+	 *
+	 * @author Melvin Lobo
+	 */
+	static void setCacheEnabled(boolean bEnabled) {
+		sbCacheEnabled = bEnabled;
+		if (!bEnabled) {
+			synchronized (sThemes) {
+				sThemes.clear();
+			}
+		}
+	}
+
+	/**
+	 * Get the cached attributes of a theme, dropping them if the configuration has changed since they were resolved.
+	 * Must be called while holding sThemes
+	 *
+	 * @param theme
+	 * 		The theme of the spinner
+	 * @param configuration
+	 * 		The current configuration of the resources of the spinner
+	 *
+	 * @return
+	 * 		The cached attributes of the theme
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static HashMap<AttributesKey, DashSpinnerAttributes> getThemeAttributes(Resources.Theme theme, Configuration configuration) {
+		ThemeAttributes themeAttributes = sThemes.get(theme);
+		if ((themeAttributes == null) || !themeAttributes.mConfiguration.equals(configuration)) {
+			themeAttributes = new ThemeAttributes(configuration);
+			sThemes.put(theme, themeAttributes);
+		}
+		return themeAttributes.mAttributes;
+	}
+
+	/**
+	 * Constructor. Resolves the attributes with their defaults
+	 *
+	 * @param context
+	 * 		The context of the spinner
+	 * @param attrs
+	 * 		The attributes defined in the xml, or null
+	 *
+	 * @author Melvin Lobo
+	 */
+	private DashSpinnerAttributes(Context context, AttributeSet attrs) {
+		DisplayMetrics displayMetrics = context.getResources().getDisplayMetrics();
+		TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DashSpinner, 0, 0);
+
+		mOuterRingColor = a.getColor(R.styleable.DashSpinner_outerRingColor, ContextCompat.getColor(context, android.R.color.holo_blue_dark));
+		mInnerCircleSuccessColor = a.getColor(R.styleable.DashSpinner_innerCircleSuccessColor, ContextCompat.getColor(context, android.R.color.holo_green_light));
+		mInnerCircleFailureColor = a.getColor(R.styleable.DashSpinner_innerCircleFailureColor, ContextCompat.getColor(context, android.R.color.holo_red_light));
+		mInnerCircleUnknownColor = a.getColor(R.styleable.DashSpinner_innerCircleUnknownColor, ContextCompat.getColor(context, android.R.color.holo_orange_light));
+		mArcColor = a.getColor(R.styleable.DashSpinner_arcColor, ContextCompat.getColor(context, android.R.color.white));
+		mTextColorFrom = a.getColor(R.styleable.DashSpinner_textColorFrom, ContextCompat.getColor(context, android.R.color.black));
+		mTextColorTo = a.getColor(R.styleable.DashSpinner_textColorTo, ContextCompat.getColor(context, android.R.color.white));
+		mnArcStartPosition = a.getFloat(R.styleable.DashSpinner_arcStartPosition, ARC_START_POSITION);
+		mnStartSpeed = a.getFloat(R.styleable.DashSpinner_arcSweepSpeed, DEFAULT_START_SPEED);
+		mnArcWidth = a.getDimension(R.styleable.DashSpinner_arcWidth, d2x(DEFAULT_ARC_WIDTH, displayMetrics));
+		mnRingWidth = a.getDimension(R.styleable.DashSpinner_outerRingWidth, d2x(DEFAULT_RING_WIDTH, displayMetrics));
+		mnMaxTextSize = (int) a.getDimension(R.styleable.DashSpinner_maxProgressTextSize, d2x(DEFAULT_MAX_TEXT_SIZE, displayMetrics));
+		mbShowProgress = a.getBoolean(R.styleable.DashSpinner_showProgressText, false);
+		mbScaleTextOnTransition = a.getBoolean(R.styleable.DashSpinner_scaleTextOnTransition, false);
+		mbGammaCorrectTextBlend = a.getBoolean(R.styleable.DashSpinner_gammaCorrectTextBlend, false);
+		mnArcLength = a.getFloat(R.styleable.DashSpinner_arcLength, DEFAULT_ARC_LENGTH);
+		mnArcAngularVelocity = a.getFloat(R.styleable.DashSpinner_arcAngularVelocity, 0.0f);
+		a.recycle();
+
+		mnStateLineStroke = d2x(STATE_LINE_STROKE, displayMetrics);
+		mnTextPadding = d2x(TEXT_PADDING, displayMetrics);
+		mnUnknownDotDistance = d2x(UNKNOWN_DOT_DISTANCE, displayMetrics);
+	}
+
+	/**
+	 * Convert dip to pixels
+	 *
+	 * @param size
+	 * 		The size to be converted
+	 * @param displayMetrics
+	 * 		The display metrics to convert with
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static float d2x(float size, DisplayMetrics displayMetrics) {
+		return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, size, displayMetrics);
+	}
+
+	//////////////////////////////////////// INNER CLASS /////////////////////////////////////////
+
+	/**
+	 * The cached attributes of a theme, and the configuration that they were resolved in
+	 */
+	private static final class ThemeAttributes {
+		private final Configuration mConfiguration;
+		private final HashMap<AttributesKey, DashSpinnerAttributes> mAttributes = new HashMap<>();
+
+		ThemeAttributes(Configuration configuration) {
+			//The resources update their configuration in place, so keep a copy of it
+			mConfiguration = new Configuration(configuration);
+		}
+	}
+
+	/**
+	 * The cache key of an attribute set: its style, and the DashSpinner attributes in it with their raw values.
+	 * References are kept as references, so they resolve the same way in the same theme
+	 */
+	private static final class AttributesKey {
+		private int mnStyle;
+		private int mnCount;
+		private int[] mnNames;
+		private String[] msValues;
+		private int mnHash;
+
+		AttributesKey() {
+			this(0, new int[SORTED_ATTRIBUTES.length], new String[SORTED_ATTRIBUTES.length]);
+		}
+
+		private AttributesKey(int nCount, int[] nNames, String[] sValues) {
+			mnCount = nCount;
+			mnNames = nNames;
+			msValues = sValues;
+		}
+
+		/**
+		 * Read an attribute set into the key
+		 *
+		 * @param attrs
+		 * 		The attributes defined in the xml, or null
+		 *
+		 * @author Melvin Lobo
+		 */
+		void set(AttributeSet attrs) {
+			mnStyle = 0;
+			mnCount = 0;
+			if (attrs != null) {
+				mnStyle = attrs.getStyleAttribute();
+				int nAttributeCount = attrs.getAttributeCount();
+				for (int nIndex = 0; nIndex < nAttributeCount; nIndex++) {
+					int nName = attrs.getAttributeNameResource(nIndex);
+					if ((Arrays.binarySearch(SORTED_ATTRIBUTES, nName) < 0) || (mnCount == mnNames.length))
+						continue;
+					mnNames[mnCount] = nName;
+					msValues[mnCount] = attrs.getAttributeValue(nIndex);
+					mnCount++;
+				}
+			}
+
+			int nHash = mnStyle;
+			for (int nIndex = 0; nIndex < mnCount; nIndex++) {
+				nHash = (31 * nHash) + mnNames[nIndex];
+				nHash = (31 * nHash) + ((msValues[nIndex] != null) ? msValues[nIndex].hashCode() : 0);
+			}
+			mnHash = nHash;
+		}
+
+		/**
+		 * @return
+		 * 		A copy of the key, to keep in the cache
+		 */
+		AttributesKey copy() {
+			AttributesKey key = new AttributesKey(mnCount, Arrays.copyOf(mnNames, mnCount), Arrays.copyOf(msValues, mnCount));
+			key.mnStyle = mnStyle;
+			key.mnHash = mnHash;
+			return key;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof AttributesKey))
+				return false;
+			AttributesKey key = (AttributesKey) object;
+			if ((mnHash != key.mnHash) || (mnStyle != key.mnStyle) || (mnCount != key.mnCount))
+				return false;
+			for (int nIndex = 0; nIndex < mnCount; nIndex++) {
+				if ((mnNames[nIndex] != key.mnNames[nIndex]) ||
+						((msValues[nIndex] != null) ? !msValues[nIndex].equals(key.msValues[nIndex]) : (key.msValues[nIndex] != null)))
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			return mnHash;
+		}
+	}
+}
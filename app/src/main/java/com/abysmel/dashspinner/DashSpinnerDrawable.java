@@ -0,0 +1,408 @@
+package com.abysmel.dashspinner;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.Rect;
+import android.graphics.drawable.Animatable;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+
+/**
+ * The Dash Spinner as an {@link Animatable} {@link Drawable}, for places where a full {@link DashSpinner} view is
+ * too heavy, like the rows of a list, an ImageView, a compound drawable of a TextView or a MenuItem icon.
+ *
+ * It draws exactly what the {@link DashSpinner} draws, with the same code, and goes through the same states.
+ * See {@link DashSpinner} for the behaviour. To rebind a recycled drawable to another download, call
+ * {@link #resetValues()} followed by {@link #setProgress}, or {@link #setState} for a download that has already
+ * ended; nothing is allocated or measured again.
+ *
+ * Unlike the view, the arc of the drawable is driven by the frame clock by default, so that it keeps moving
+ * in hosts that only redraw it when it asks them to.
+ */
+public class DashSpinnerDrawable extends Drawable implements Animatable {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * Static values
+	 */
+	private static final float DEFAULT_ARC_ANGULAR_VELOCITY = 1200.0f;     //The default sweep speed of 20 degrees per frame at 60 fps
+	private static final float DEFAULT_INTRINSIC_SIZE       = 48.0f;
+	private static final int   MAX_ALPHA                    = 255;
+
+	/**
+	 * The renderer that holds the state of the spinner and draws it
+	 */
+	private final DashSpinnerRenderer mRenderer;
+
+	/**
+	 * The intrinsic size
+	 */
+	private int mnIntrinsicWidth;
+	private int mnIntrinsicHeight;
+
+	/**
+	 * The alpha applied to everything that is drawn
+	 */
+	private int mnAlpha = MAX_ALPHA;
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Constructor
+	 *
+	 * @param context
+	 * 		The context to read the default attributes and resources from
+	 *
+	 * @author Melvin Lobo
+	 */
+	public DashSpinnerDrawable(Context context) {
+		this(context, null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param context
+	 * 		The context to read the attributes and resources from
+	 * @param attrs
+	 * 		The DashSpinner attributes, or null for the defaults
+	 *
+	 * @author Melvin Lobo
+	 */
+	public DashSpinnerDrawable(Context context, AttributeSet attrs) {
+		mRenderer = new DashSpinnerRenderer(context, attrs, new DashSpinnerRenderer.Callback() {
+			@Override
+			public void invalidateRenderer() {
+				//Nothing shows the drawable any more. Let go of the frame ticker until it is drawn again
+				if (getCallback() == null)
+					mRenderer.suspend();
+				else
+					invalidateSelf();
+			}
+		});
+
+		if (mRenderer.getArcAngularVelocity() <= 0.0f)
+			mRenderer.setArcAngularVelocity(DEFAULT_ARC_ANGULAR_VELOCITY);
+
+		//Nothing is animated until the drawable is drawn or shown by a host
+		mRenderer.suspend();
+
+		mnIntrinsicWidth = mnIntrinsicHeight = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_INTRINSIC_SIZE,
+				context.getResources().getDisplayMetrics());
+	}
+
+	/**
+	 * Set the size that the drawable reports to its host when it is not given one
+	 *
+	 * @param nWidth
+	 * 		The intrinsic width in pixels
+	 * @param nHeight
+	 * 		The intrinsic height in pixels
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setIntrinsicSize(int nWidth, int nHeight) {
+		mnIntrinsicWidth = nWidth;
+		mnIntrinsicHeight = nHeight;
+	}
+
+	@Override
+	public int getIntrinsicWidth() {
+		return mnIntrinsicWidth;
+	}
+
+	@Override
+	public int getIntrinsicHeight() {
+		return mnIntrinsicHeight;
+	}
+
+	@Override
+	protected void onBoundsChange(Rect bounds) {
+		super.onBoundsChange(bounds);
+		mRenderer.setSize(bounds.width(), bounds.height());
+	}
+
+	/**
+	 * Draw the spinner in the bounds. See {@link DashSpinner#onDraw(Canvas)}
+	 *
+	 * @param canvas
+	 * 		The canvas to draw on
+	 *
+	 * @author Melvin Lobo
+	 */
+	@Override
+	public void draw(Canvas canvas) {
+		//A host is drawing the drawable, so it animates from now on. Hosts that never call setVisible start it here
+		if (isVisible())
+			mRenderer.resume();
+
+		Rect bounds = getBounds();
+		if (mnAlpha == 0)
+			return;
+
+		int nSaveCount = (mnAlpha < MAX_ALPHA) ?
+				canvas.saveLayerAlpha(bounds.left, bounds.top, bounds.right, bounds.bottom, mnAlpha, Canvas.ALL_SAVE_FLAG) : canvas.save();
+		canvas.translate(bounds.left, bounds.top);
+		mRenderer.draw(canvas);
+		canvas.restoreToCount(nSaveCount);
+	}
+
+	@Override
+	public void setAlpha(int alpha) {
+		if (mnAlpha != alpha) {
+			mnAlpha = alpha;
+			invalidateSelf();
+		}
+	}
+
+	@Override
+	public int getAlpha() {
+		return mnAlpha;
+	}
+
+	@Override
+	public void setColorFilter(ColorFilter colorFilter) {
+		mRenderer.setColorFilter(colorFilter);
+	}
+
+	@Override
+	public int getOpacity() {
+		return PixelFormat.TRANSLUCENT;
+	}
+
+	/**
+	 * Suspend the spinner while the drawable is hidden, and resume it where it was when it is shown. Hosts hide
+	 * their drawables when they are detached, so the frame ticker lets go of the drawable and its host. The drawable
+	 * also starts suspended, and suspends itself when it is invalidated without a host, so a drawable that no host
+	 * ever shows or hides is never ticked
+	 */
+	@Override
+	public boolean setVisible(boolean visible, boolean restart) {
+		boolean bChanged = super.setVisible(visible, restart);
+		if (visible)
+			mRenderer.resume();
+		else
+			mRenderer.suspend();
+		return bChanged;
+	}
+
+	/**
+	 * Start moving the arc, if the spinner is downloading. The arc also starts on its own when the download begins
+	 *
+	 * @author Melvin Lobo
+	 */
+	@Override
+	public void start() {
+		mRenderer.startArcClock();
+	}
+
+	/**
+	 * Stop moving the arc. Running transitions still finish
+	 *
+	 * @author Melvin Lobo
+	 */
+	@Override
+	public void stop() {
+		mRenderer.stopArcClock();
+	}
+
+	@Override
+	public boolean isRunning() {
+		return mRenderer.isAnimating();
+	}
+
+	/**
+	 * Set the Download Intimation Listener
+	 *
+	 * @param listener
+	 * 		The Download Intimation Listener
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setOnDownloadIntimationListener(DashSpinner.OnDownloadIntimationListener listener) {
+		mRenderer.setOnDownloadIntimationListener(listener);
+	}
+
+	/**
+	 * Show or hide the progress percentage text in the center of the spinner
+	 *
+	 * @param bShowProgress
+	 * 		true to draw the progress text
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setShowProgressText(boolean bShowProgress) {
+		mRenderer.setShowProgressText(bShowProgress);
+	}
+
+	/**
+	 * Shrink the progress text during the transition to a result by scaling the canvas around the center, instead
+	 * of fitting the text to the shrinking circle on every frame
+	 *
+	 * @param bScaleTextOnTransition
+	 * 		true to scale the text
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setScaleTextOnTransition(boolean bScaleTextOnTransition) {
+		mRenderer.setScaleTextOnTransition(bScaleTextOnTransition);
+	}
+
+	/**
+	 * Blend the progress text from textColorFrom to textColorTo in linear light instead of in sRGB, so that the
+	 * middle of the blend is not darker than both colors. The blend is precomputed, so this costs nothing while drawing
+	 *
+	 * @param bGammaCorrect
+	 * 		true to blend in linear light
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setGammaCorrectTextBlend(boolean bGammaCorrect) {
+		mRenderer.setGammaCorrectTextBlend(bGammaCorrect);
+	}
+
+	/**
+	 * Set the color of the outer ring
+	 *
+	 * @param nColor
+	 * 		The color
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setOuterRingColor(int nColor) {
+		mRenderer.setOuterRingColor(nColor);
+	}
+
+	/**
+	 * Set the colors of the inner circle
+	 *
+	 * @param nSuccessColor
+	 * 		The color while downloading and for success
+	 * @param nFailureColor
+	 * 		The color for failure
+	 * @param nUnknownColor
+	 * 		The color for unknown
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setInnerCircleColors(int nSuccessColor, int nFailureColor, int nUnknownColor) {
+		mRenderer.setInnerCircleColors(nSuccessColor, nFailureColor, nUnknownColor);
+	}
+
+	/**
+	 * See {@link DashSpinner#setArcAngularVelocity(float)}
+	 *
+	 * @param nDegreesPerSecond
+	 * 		The angular velocity of the arc at 0% progress, in degrees per second
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setArcAngularVelocity(float nDegreesPerSecond) {
+		mRenderer.setArcAngularVelocity(nDegreesPerSecond);
+	}
+
+	/**
+	 * Reset the spinner to its initial state, for example when the drawable is rebound to another download
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void resetValues() {
+		mRenderer.resetValues();
+		invalidateSelf();
+	}
+
+	/**
+	 * See {@link DashSpinner#setState(DashSpinner.DASH_MODE, float)}. Use this to rebind the drawable to a download
+	 * that has already ended
+	 *
+	 * @param dashMode
+	 * 		The state to show: NONE, DOWNLOAD, SUCCESS, FAILURE or UNKNOWN
+	 * @param nProgress
+	 * 		The float value of progress between 0 and 1. For a result, the progress that the download ended at
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setState(DashSpinner.DASH_MODE dashMode, float nProgress) {
+		mRenderer.setState(dashMode, nProgress);
+	}
+
+	/**
+	 * See {@link DashSpinner#setProgress(float)}
+	 *
+	 * @param nProgress
+	 * 		The float value of progress between 0 and 1
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setProgress(float nProgress) {
+		mRenderer.setProgress(nProgress);
+	}
+
+	/**
+	 * See {@link DashSpinner#setProgressAggregator(ChunkProgressAggregator)}
+	 *
+	 * @param aggregator
+	 * 		The aggregator, or null to stop reading from it
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void setProgressAggregator(ChunkProgressAggregator aggregator) {
+		mRenderer.setProgressAggregator(aggregator);
+	}
+
+	/**
+	 * Get the number of redraws that were requested for a progress or an arc change
+	 *
+	 * @return
+	 * 		The number of requested redraws
+	 *
+	 * @author Melvin Lobo
+	 */
+	public long getRedrawRequestCount() {
+		return mRenderer.getRedrawRequestCount();
+	}
+
+	/**
+	 * Get the number of requested redraws that were skipped, as the progress or the arc changed too little to change
+	 * a pixel. Divided by {@link #getRedrawRequestCount()}, this is the skip rate
+	 *
+	 * @return
+	 * 		The number of skipped redraws
+	 *
+	 * @author Melvin Lobo
+	 */
+	public long getSkippedRedrawCount() {
+		return mRenderer.getSkippedRedrawCount();
+	}
+
+	/**
+	 * Show Success. Can be called from any thread
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void showSuccess() {
+		mRenderer.showSuccess();
+	}
+
+	/**
+	 * Show Failure. Can be called from any thread
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void showFailure() {
+		mRenderer.showFailure();
+	}
+
+	/**
+	 * Show Unknown. Can be called from any thread
+	 *
+	 * @author Melvin Lobo
+	 */
+	public void showUnknown() {
+		mRenderer.showUnknown();
+	}
+}
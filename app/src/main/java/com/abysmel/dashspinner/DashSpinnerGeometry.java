@@ -0,0 +1,221 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.RectF;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Every pixel value that the Dash Spinner draws with, for one size. It is built when the size changes and is never
+ * modified afterwards, so the drawing code only reads from it, and spinners of the same size and dimensions share one.
+ *
+ * The spinner is a circle of the smaller of the two dimensions, centered in the box on both axes. For a box that is not
+ * square, the center is therefore not the same on the X and Y axes.
+ */
+final class DashSpinnerGeometry {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * Static values
+	 */
+	private static final float STATUS_SYMBOL_WIDTH_PERCENT = 0.5f;    //Take 50% of the available width to draw the status symbols
+	private static final int   MAX_CACHED_GEOMETRIES       = 32;      //Beyond this, the least recently used geometry is dropped
+
+	/**
+	 * The geometries of all spinners, by their size and dimensions
+	 */
+	private static final LinkedHashMap<GeometryKey, DashSpinnerGeometry> sGeometries = new LinkedHashMap<GeometryKey, DashSpinnerGeometry>(MAX_CACHED_GEOMETRIES, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<GeometryKey, DashSpinnerGeometry> eldest) {
+			return size() > MAX_CACHED_GEOMETRIES;
+		}
+	};
+
+	/**
+	 * The size of the box to draw in
+	 */
+	final int mnWidth;
+	final int mnHeight;
+
+	/**
+	 * The size of the spinner: the smaller of the width and the height
+	 */
+	final int mnSize;
+
+	/**
+	 * The center of the spinner
+	 */
+	final float mnCenterX;
+	final float mnCenterY;
+
+	/**
+	 * The Ring Radius, and the width of its stroke
+	 */
+	final float mnRingRadius;
+	final float mnRingWidth;
+
+	/**
+	 * The full Inner circle radius
+	 */
+	final float mnInnerCircleRadius;
+
+	/**
+	 * The bounds of the arc, inside the ring
+	 */
+	final RectF mArcRect;
+
+	/**
+	 * The length of the line that the SUCCESS, FAILURE and UNKNOWN glyphs are formed from, and the parts of it that
+	 * form the short and long arm of the tick
+	 */
+	final float mnLineWidth;
+	final float mnTickShortArmLength;
+	final float mnTickLongArmLength;
+
+	/**
+	 * The stroke width of the line and the glyphs, and the radius of the dots: the one that the text scales down to,
+	 * and the one of the exclamation. Both are in pixels for the density
+	 */
+	final float mnStateLineStroke;
+	final float mnStateDotRadius;
+
+	/**
+	 * The padding around the progress text
+	 */
+	final float mnTextPadding;
+
+	/**
+	 * The end points of the SUCCESS, FAILURE and UNKNOWN glyphs over their transition
+	 */
+	final DashGlyphGeometry mGlyphs;
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Get the geometry for a size, building it if no spinner uses it yet
+	 *
+	 * @param nWidth
+	 * 		The width of the box to draw in
+	 * @param nHeight
+	 * 		The height of the box to draw in
+	 * @param nRingWidth
+	 * 		The width of the outer ring
+	 * @param nArcWidth
+	 * 		The width of the arc
+	 * @param nStateLineStroke
+	 * 		The stroke width of the line and the glyphs, in pixels
+	 * @param nTextPadding
+	 * 		The padding around the progress text, in pixels
+	 * @param nUnknownDotDistance
+	 * 		The final distance of the dot of the exclamation from its line, in pixels
+	 *
+	 * @return
+	 * 		The geometry
+	 *
+	 * @author Melvin Lobo
+	 */
+	static synchronized DashSpinnerGeometry get(int nWidth, int nHeight, float nRingWidth, float nArcWidth, float nStateLineStroke,
+												float nTextPadding, float nUnknownDotDistance) {
+		GeometryKey key = new GeometryKey(nWidth, nHeight, nRingWidth, nArcWidth, nStateLineStroke, nTextPadding, nUnknownDotDistance);
+		DashSpinnerGeometry geometry = sGeometries.get(key);
+		if (geometry == null) {
+			geometry = new DashSpinnerGeometry(nWidth, nHeight, nRingWidth, nArcWidth, nStateLineStroke, nTextPadding, nUnknownDotDistance);
+			sGeometries.put(key, geometry);
+		}
+		return geometry;
+	}
+
+	/**
+	 * Constructor. Computes all the values for the size
+	 *
+	 * @param nWidth
+	 * 		The width of the box to draw in
+	 * @param nHeight
+	 * 		The height of the box to draw in
+	 * @param nRingWidth
+	 * 		The width of the outer ring
+	 * @param nArcWidth
+	 * 		The width of the arc
+	 * @param nStateLineStroke
+	 * 		The stroke width of the line and the glyphs, in pixels
+	 * @param nTextPadding
+	 * 		The padding around the progress text, in pixels
+	 * @param nUnknownDotDistance
+	 * 		The final distance of the dot of the exclamation from its line, in pixels
+	 *
+	 * @author Melvin Lobo
+	 */
+	private DashSpinnerGeometry(int nWidth, int nHeight, float nRingWidth, float nArcWidth, float nStateLineStroke, float nTextPadding,
+						float nUnknownDotDistance) {
+		mnWidth = nWidth;
+		mnHeight = nHeight;
+		mnSize = Math.min(nWidth, nHeight);
+		mnCenterX = nWidth / 2;
+		mnCenterY = nHeight / 2;
+		mnRingRadius = (int) (mnSize - nRingWidth) / 2;
+		mnRingWidth = nRingWidth;
+		mnInnerCircleRadius = (int) (mnSize - (nRingWidth * 2)) / 2;
+
+		float nRingBoundaryInner = mnRingRadius - (nRingWidth / 2) - (nArcWidth / 2);
+		mArcRect = new RectF(mnCenterX - nRingBoundaryInner, mnCenterY - nRingBoundaryInner, mnCenterX + nRingBoundaryInner, mnCenterY + nRingBoundaryInner);
+
+		mnLineWidth = STATUS_SYMBOL_WIDTH_PERCENT * mnSize;
+		mnTickShortArmLength = DashGlyphGeometry.TICK_SHORT_ARM_RATIO_PERCENT * mnLineWidth;
+		mnTickLongArmLength = DashGlyphGeometry.TICK_LONG_ARM_RATIO_PERCENT * mnLineWidth;
+
+		mnStateLineStroke = nStateLineStroke;
+		mnStateDotRadius = nStateLineStroke / 2;
+		mnTextPadding = nTextPadding;
+
+		mGlyphs = new DashGlyphGeometry();
+		mGlyphs.build(mnCenterX, mnCenterY, mnLineWidth, nUnknownDotDistance);
+	}
+
+	//////////////////////////////////////// INNER CLASS /////////////////////////////////////////
+
+	/**
+	 * The key of a geometry in the cache: everything that it is computed from
+	 */
+	private static final class GeometryKey {
+		private final int mnWidth;
+		private final int mnHeight;
+		private final float mnRingWidth;
+		private final float mnArcWidth;
+		private final float mnStateLineStroke;
+		private final float mnTextPadding;
+		private final float mnUnknownDotDistance;
+
+		GeometryKey(int nWidth, int nHeight, float nRingWidth, float nArcWidth, float nStateLineStroke, float nTextPadding,
+					float nUnknownDotDistance) {
+			mnWidth = nWidth;
+			mnHeight = nHeight;
+			mnRingWidth = nRingWidth;
+			mnArcWidth = nArcWidth;
+			mnStateLineStroke = nStateLineStroke;
+			mnTextPadding = nTextPadding;
+			mnUnknownDotDistance = nUnknownDotDistance;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof GeometryKey))
+				return false;
+			GeometryKey key = (GeometryKey) object;
+			return (mnWidth == key.mnWidth) && (mnHeight == key.mnHeight) && (mnRingWidth == key.mnRingWidth) &&
+					(mnArcWidth == key.mnArcWidth) && (mnStateLineStroke == key.mnStateLineStroke) &&
+					(mnTextPadding == key.mnTextPadding) && (mnUnknownDotDistance == key.mnUnknownDotDistance);
+		}
+
+		@Override
+		public int hashCode() {
+			int nHash = mnWidth;
+			nHash = (31 * nHash) + mnHeight;
+			nHash = (31 * nHash) + Float.floatToIntBits(mnRingWidth);
+			nHash = (31 * nHash) + Float.floatToIntBits(mnArcWidth);
+			nHash = (31 * nHash) + Float.floatToIntBits(mnStateLineStroke);
+			nHash = (31 * nHash) + Float.floatToIntBits(mnTextPadding);
+			return (31 * nHash) + Float.floatToIntBits(mnUnknownDotDistance);
+		}
+	}
+}
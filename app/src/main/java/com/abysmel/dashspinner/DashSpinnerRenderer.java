@@ -0,0 +1,1777 @@
+package com.abysmel.dashspinner;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AttributeSet;
+
+import com.abysmel.dashspinner.DashSpinner.DASH_MODE;
+import com.abysmel.dashspinner.DashSpinner.OnDownloadIntimationListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The rendering and animation of the Dash Spinner, shared by {@link DashSpinner} and {@link DashSpinnerDrawable}.
+ * See {@link DashSpinner} for the behaviour of the spinner.
+ *
+ * The renderer holds the attributes, the state of the spinner and all of the drawing code. It draws into a box of
+ * the size set with {@link #setSize}, with its top left corner at the origin of the canvas. The host (a View or a
+ * Drawable) only forwards its size and draw calls, and invalidates itself through {@link Callback}.
+ */
+final class DashSpinnerRenderer {
+
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * Static values
+	 */
+	private static final int   CIRCULAR_FACTOR               = 360;
+	private static final int   TRANSITION_ANIM_DURATION      = 400;
+	private static final float TRANSITION_CAT_START_VAL      = 1.0f;
+	private static final float TEXT_SCALE_DOWN_PERCENT_VALUE = 0.1f;
+	private static final int   MAX_ALPHA                     = 255;
+	private static final int   MAX_PERCENT                   = 100;
+	private static final float NANOS_PER_SECOND              = 1000000000.0f;
+	private static final float MAX_ARC_FRAME_DELTA_SECONDS   = 0.1f;    //Longest frame gap that the arc will catch up on, so a stall does not make it jump
+	private static final long  NANOS_PER_MILLI               = 1000000L;
+	private static final float ARC_POSITION_QUANTUM          = 0.25f;   //Smallest arc movement in degrees that is worth a new frame
+	private static final float NO_RENDERED_PROGRESS          = -1.0f;
+
+	/**
+	 * The percentage strings ("0%" to "100%"), built once so that drawing the progress text does not
+	 * concatenate a new string on every frame
+	 */
+	private static final String[] PERCENT_STRINGS = new String[MAX_PERCENT + 1];
+
+	static {
+		for (int nPercent = 0; nPercent <= MAX_PERCENT; nPercent++) {
+			PERCENT_STRINGS[nPercent] = nPercent + "%";
+		}
+	}
+
+
+	/**
+	 * The resolved attributes, shared with every spinner that has the same attributes in the same theme
+	 */
+	private final DashSpinnerAttributes mAttributes;
+
+	/**
+	 * The current mode that the Dash Spinner is in
+	 */
+	private DASH_MODE mCurrentDashMode = DASH_MODE.NONE;
+
+	/**
+	 * The Next Mode that should come after transiton
+	 */
+	private DASH_MODE mNextDashMode = DASH_MODE.NONE;
+
+	/**
+	 * The progress Text. Always one of {@link #PERCENT_STRINGS}
+	 */
+	private String msProgressText = PERCENT_STRINGS[0];
+
+	/**
+	 * The Outer ring color
+	 */
+	private int mOuterRingColor = 0;
+
+	/**
+	 * The Inner Circle Download / Success color
+	 */
+	private int mInnerCircleSuccessColor = 0;
+
+	/**
+	 * The Inner Circle Failure color
+	 */
+	private int mInnerCircleFailureColor = 0;
+
+	/**
+	 * The Inner Circle Unknown color
+	 */
+	private int mInnerCircleUnknownColor = 0;
+
+	/**
+	 * The pixel values for the current size, rebuilt whenever the size changes
+	 */
+	private DashSpinnerGeometry mGeometry;
+
+	/**
+	 * The points of the glyph being drawn, reused on every frame. Allocated when the first glyph is drawn
+	 */
+	private float[] mnGlyphPoints = null;
+
+	/**
+	 * The number of draw ops issued by the last frame drawn in each mode, indexed by the ordinal of the mode
+	 */
+	private final int[] mnDrawOpCounts = new int[DASH_MODE.values().length];
+
+	/**
+	 * The paints, each configured once for what it draws. While drawing, only the colors and alphas that
+	 * animate are set on them
+	 */
+	private final Paint mRingPaint = new Paint(Paint.ANTI_ALIAS_FLAG);             //The outer ring
+	private final Paint mInnerCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);      //The inner circle. Its color and alpha animate
+	private final Paint mArcPaint = new Paint(Paint.ANTI_ALIAS_FLAG);              //The arc
+	private final Paint mGlyphStrokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);      //The line and the SUCCESS, FAILURE and UNKNOWN glyphs
+	private final Paint mGlyphDotPaint = new Paint(Paint.ANTI_ALIAS_FLAG);         //The dot that the text scales down to
+
+	/**
+	 * The outer ring of the geometry, for software canvases. Looked up on the first software frame of each size
+	 */
+	private OuterRingMask mRingMask = null;
+
+	/**
+	 * If the paints, the geometry and the color table have been set up. This is deferred until the spinner is first
+	 * sized or drawn, so that inflating spinners only costs their attributes
+	 */
+	private boolean mbInitialized = false;
+
+	/**
+	 * The typeface of the progress text. It is created once and shared by every spinner
+	 */
+	private static Typeface sProgressTypeface = null;
+
+	/**
+	 * The handler of the main thread, shared by every spinner that lives on it
+	 */
+	private static Handler sMainHandler = null;
+
+	/**
+	 * The paint that the progress text is drawn from the glyph atlas with. Its color is the text color. This and the
+	 * other progress text resources below are allocated when the text is first drawn, as most spinners never show it
+	 */
+	private Paint mTextAtlasPaint = null;
+
+	/**
+	 * The glyph atlases that this spinner has drawn with, indexed by the power of two of their size bucket
+	 */
+	private ProgressTextAtlas[] mTextAtlases = null;
+
+	/**
+	 * The source and destination of each glyph drawn from the atlas, reused on every frame
+	 */
+	private Rect mTextAtlasSrcRect = null;
+	private RectF mTextAtlasDstRect = null;
+
+	/**
+	 * The fitted text sizes for each of the percentage strings
+	 */
+	private ProgressTextSizeCache mTextSizeCache = null;
+
+	/**
+	 * The color filter set on the paints, for the paints that are allocated later
+	 */
+	private ColorFilter mColorFilter = null;
+
+	/**
+	 * The progress variable
+	 */
+	private float mnIndeterminateStartPosition = 0;
+
+	/**
+	 * The angular velocity of the arc in degrees per second, when it is driven by the frame clock.
+	 * If this is 0, the arc moves by the start speed every time the spinner is drawn
+	 */
+	private float mnArcAngularVelocity = 0.0f;
+
+	/**
+	 * The frame time of the last arc frame, or 0 if the arc clock has just started
+	 */
+	private long mnLastArcFrameTimeNanos = 0;
+
+	/**
+	 * If the arc is being moved by the frame clock
+	 */
+	private boolean mbArcClockRunning = false;
+
+	/**
+	 * The progress factor between 0 and 1
+	 */
+	private float mnProgress = 0.0f;
+
+	/**
+	 * The progress and result commands set from any thread, waiting to be drained on the next frame
+	 */
+	private final DashCommandWord mCommandWord = new DashCommandWord();
+
+	/**
+	 * The aggregator that the progress is read from on each frame, for downloads split into chunks
+	 */
+	private ChunkProgressAggregator mProgressAggregator = null;
+
+	/**
+	 * Asks for a drain when a chunk reports progress to the aggregator
+	 */
+	private final ChunkProgressAggregator.OnChunkProgressListener mOnChunkProgressListener = new ChunkProgressAggregator.OnChunkProgressListener() {
+		@Override
+		public void onChunkProgress() {
+			if (mCommandWord.requestDrain())
+				scheduleDrain();
+		}
+	};
+
+	/**
+	 * The client that the frame ticker of the host thread drives this spinner with. It drains the pending commands,
+	 * moves the arc and steps the transitions
+	 */
+	private final DashSpinnerTicker.Client mTickerClient = new DashSpinnerTicker.Client() {
+		@Override
+		public boolean onTick(long frameTimeNanos) {
+			return onFrame(frameTimeNanos);
+		}
+	};
+
+	/**
+	 * Registers with the frame ticker on the thread that owns the host, when a command is set from another thread
+	 */
+	private final Runnable mRequestFramesRunnable = new Runnable() {
+		@Override
+		public void run() {
+			DashSpinnerTicker.getInstance().register(mTickerClient);
+		}
+	};
+
+	/**
+	 * The number of progress updates that were coalesced into an already requested frame
+	 */
+	private final AtomicLong mnCoalescedProgressUpdates = new AtomicLong(0);
+
+	/**
+	 * The progress and the arc position of the last DOWNLOAD frame that was drawn, to skip redraws that would draw
+	 * the same frame again. The progress is NO_RENDERED_PROGRESS if the last frame was not a DOWNLOAD frame
+	 */
+	private float mnRenderedProgress = NO_RENDERED_PROGRESS;
+	private float mnRenderedArcPosition = 0.0f;
+
+	/**
+	 * The number of redraws that were requested for a progress or an arc change, and how many of them were
+	 * skipped as they would not have changed a pixel. Only touched on the thread that owns the host
+	 */
+	private long mnRedrawRequests = 0;
+	private long mnSkippedRedraws = 0;
+
+	/**
+	 * Show the progress Text
+	 */
+	private boolean mbShowProgress = false;
+
+	/**
+	 * Shrink the progress text with a canvas scale during TRANSITION_TEXT_AND_CIRCLE, instead of fitting it again to
+	 * the shrinking circle on every frame
+	 */
+	private boolean mbScaleTextOnTransition = false;
+
+	/**
+	 * The last text size that the progress text was fitted to. The text shrinks from it when it is scaled on transition
+	 */
+	private float mnLastFittedTextSize = 0.0f;
+
+	/**
+	 * Blend the progress text colors in linear light instead of in sRGB
+	 */
+	private boolean mbGammaCorrectTextBlend = false;
+
+	/**
+	 * The text and inner circle colors over the download progress, rebuilt whenever one of the colors changes
+	 */
+	private ProgressColorTable mColorTable;
+
+	/**
+	 * If a transition is running. The transition goes through the modes TRANSITION_TEXT_AND_CIRCLE (scaling down the
+	 * text and finishing the circle), TRANSITION_LINE (increasing the line width) and the state itself, as laid out
+	 * by mTransitionTimeline, driven by the frame ticker
+	 */
+	private boolean mbTransitionRunning = false;
+
+	/**
+	 * The phases of the transition, each TRANSITION_ANIM_DURATION long. Allocated when the first transition starts,
+	 * as many spinners never leave DOWNLOAD
+	 */
+	private TransitionTimeline mTransitionTimeline = null;
+
+	/**
+	 * The frame time at which the transition started, or -1 to start it on the next frame
+	 */
+	private long mnTransitionStartNanos = -1;
+
+	/**
+	 * How far into the timeline the transition starts on its first frame. 0 unless a transition is resumed
+	 */
+	private long mnTransitionResumeNanos = 0;
+
+	/**
+	 * If the host is detached or hidden. Nothing is drawn until it is shown again, but commands are still applied and
+	 * a running transition still ends on time
+	 */
+	private boolean mbSuspended = false;
+
+	/**
+	 * The result that the transition is heading to
+	 */
+	private DASH_MODE mTransitionResultMode = DASH_MODE.NONE;
+
+	/**
+	 * The progress of the current transition animation
+	 */
+	private float mnTransitionProgress = 0.0f;
+
+	/**
+	 * The current progress Radius based on the progress
+	 */
+	private float mnProgressRadius = 0.0f;
+
+	/**
+	 * The host to invalidate when the spinner has to be redrawn
+	 */
+	private final Callback mCallback;
+
+	/**
+	 * The size of the box to draw in
+	 */
+	private int mnWidth = 0;
+	private int mnHeight = 0;
+
+	/**
+	 * The download intimation complete listener
+	 */
+	private OnDownloadIntimationListener mOnDownloadIntimationListener = null;
+
+	/**
+	 * A handler on the thread that owns the host, to hand over commands set from other threads. The spinner is only
+	 * ever registered with the frame ticker of that thread
+	 */
+	private final Handler mHostHandler = getHostHandler();
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Constructor. The attributes are resolved with their defaults if they are not set
+	 *
+	 * @param context
+	 * 		The context of the host
+	 * @param attrs
+	 * 		The custom attributes defined in the xml, or null
+	 * @param callback
+	 * 		The host to invalidate when the spinner has to be redrawn
+	 *
+	 * @author Melvin Lobo
+	 */
+	DashSpinnerRenderer(Context context, AttributeSet attrs, Callback callback) {
+		mCallback = callback;
+
+		/*
+		 * Take the attributes. They are resolved once for all spinners with the same attributes in the same theme, and
+		 * held as they are. Only the ones that can be changed on a spinner are copied
+		 */
+		DashSpinnerAttributes attributes = DashSpinnerAttributes.get(context, attrs);
+		mAttributes = attributes;
+		mOuterRingColor = attributes.mOuterRingColor;
+		mInnerCircleSuccessColor = attributes.mInnerCircleSuccessColor;
+		mInnerCircleFailureColor = attributes.mInnerCircleFailureColor;
+		mInnerCircleUnknownColor = attributes.mInnerCircleUnknownColor;
+		mnIndeterminateStartPosition = attributes.mnArcStartPosition;
+		mbShowProgress = attributes.mbShowProgress;
+		mbScaleTextOnTransition = attributes.mbScaleTextOnTransition;
+		mbGammaCorrectTextBlend = attributes.mbGammaCorrectTextBlend;
+		mnArcAngularVelocity = attributes.mnArcAngularVelocity;
+	}
+
+	/**
+	 * Set up the paints, the geometry and the color table, the first time that the spinner is sized or drawn
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void ensureInitialized() {
+		if (mbInitialized)
+			return;
+
+		mbInitialized = true;
+		initializePaints();
+		initializeValues();
+		updateColorTable();
+	}
+
+	/**
+	 * Build the shared caches that the first frames of a spinner would otherwise build on the main thread: the
+	 * typeface and the measured percentage strings, the geometry for each size, the color table, and the text
+	 * atlases for every text size the progress text can grow through. The attributes are resolved on the calling
+	 * thread, as they need the theme. Everything else is built on a background executor
+	 *
+	 * @param context
+	 * 		The context the spinners will be created in. Its theme and density are the ones warmed up
+	 * @param attrs
+	 * 		The attributes the spinners will be inflated with, or null for the defaults
+	 * @param nSizes
+	 * 		The expected sizes of the spinners, in pixels. Spinners are taken to be square
+	 *
+	 * @author Melvin Lobo
+	 */
+	static void prewarm(Context context, AttributeSet attrs, int[] nSizes) {
+		final DashSpinnerAttributes attributes = DashSpinnerAttributes.get(context, attrs);
+		final int[] nPrewarmSizes = nSizes.clone();
+
+		AsyncTask.THREAD_POOL_EXECUTOR.execute(new Runnable() {
+			@Override
+			public void run() {
+				Typeface typeface = getProgressTypeface();
+				ProgressTextSizeCache.get(typeface, PERCENT_STRINGS);
+				ProgressColorTable.get(attributes.mTextColorFrom, attributes.mTextColorTo, attributes.mInnerCircleSuccessColor,
+						attributes.mbGammaCorrectTextBlend);
+				for (int nSize : nPrewarmSizes) {
+					DashSpinnerGeometry.get(nSize, nSize, attributes.mnRingWidth, attributes.mnArcWidth, attributes.mnStateLineStroke,
+							attributes.mnTextPadding, attributes.mnUnknownDotDistance);
+				}
+
+				/*
+				 * The text grows from nothing up to its largest size, through every bucket up to that of the largest size.
+				 * The text can be shown at any time, so the atlases are rendered even if it is not shown yet
+				 */
+				int nMaxBucketSize = ProgressTextAtlas.getBucketSize(attributes.mnMaxTextSize);
+				for (int nBucketSize = ProgressTextAtlas.getBucketSize(0.0f); nBucketSize <= nMaxBucketSize; nBucketSize <<= 1) {
+					ProgressTextAtlas.get(typeface, nBucketSize);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Get the typeface of the progress text, creating it for the first spinner
+	 *
+	 * @return
+	 * 		The typeface
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static synchronized Typeface getProgressTypeface() {
+		if (sProgressTypeface == null)
+			sProgressTypeface = Typeface.create("sans-serif-light", Typeface.NORMAL);
+		return sProgressTypeface;
+	}
+
+	/**
+	 * Get a handler for the thread that creates the host. Spinners on the main thread share one
+	 *
+	 * @return
+	 * 		The handler
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static Handler getHostHandler() {
+		Looper looper = Looper.myLooper();
+		if ((looper == null) || (looper != Looper.getMainLooper()))
+			return new Handler();
+
+		//Only ever touched on the main thread
+		if (sMainHandler == null)
+			sMainHandler = new Handler(looper);
+		return sMainHandler;
+	}
+
+	/**
+	 * Look up the shared color table for the current colors
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void updateColorTable() {
+		mColorTable = ProgressColorTable.get(mAttributes.mTextColorFrom, mAttributes.mTextColorTo, mInnerCircleSuccessColor, mbGammaCorrectTextBlend);
+	}
+
+	/**
+	 * Configure the paints for the attributes. The colors that animate are set while drawing
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void initializePaints() {
+		mRingPaint.setStyle(Paint.Style.STROKE);
+		mRingPaint.setStrokeWidth(mAttributes.mnRingWidth);
+		mRingPaint.setColor(mOuterRingColor);
+
+		mInnerCirclePaint.setStyle(Paint.Style.FILL);
+
+		mArcPaint.setStyle(Paint.Style.STROKE);
+		mArcPaint.setStrokeWidth(mAttributes.mnArcWidth);
+		mArcPaint.setStrokeCap(Paint.Cap.ROUND);
+		mArcPaint.setColor(mAttributes.mArcColor);
+
+		mGlyphStrokePaint.setStyle(Paint.Style.STROKE);
+		mGlyphStrokePaint.setStrokeWidth(mAttributes.mnStateLineStroke);
+		mGlyphStrokePaint.setStrokeCap(Paint.Cap.ROUND);
+		mGlyphStrokePaint.setColor(mAttributes.mTextColorTo);
+
+		mGlyphDotPaint.setStyle(Paint.Style.FILL);
+		mGlyphDotPaint.setColor(mAttributes.mTextColorTo);
+	}
+
+	/**
+	 * Set the Download Intimation Listener
+	 *
+	 * @param listener
+	 * 		The Download Intimation Listener
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setOnDownloadIntimationListener(OnDownloadIntimationListener listener) {
+		mOnDownloadIntimationListener = listener;
+	}
+
+	/**
+	 * Show or hide the progress percentage text in the center of the spinner
+	 *
+	 * @param bShowProgress
+	 * 		true to draw the progress text
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setShowProgressText(boolean bShowProgress) {
+		mbShowProgress = bShowProgress;
+		updateProgressRadius();
+		mCallback.invalidateRenderer();
+	}
+
+	/**
+	 * Shrink the progress text during the transition to a result by scaling the canvas around the center, instead
+	 * of fitting the text to the shrinking circle on every frame. The text then keeps the size it had when the
+	 * download ended and is scaled down with the transition
+	 *
+	 * @param bScaleTextOnTransition
+	 * 		true to scale the text
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setScaleTextOnTransition(boolean bScaleTextOnTransition) {
+		mbScaleTextOnTransition = bScaleTextOnTransition;
+	}
+
+	/**
+	 * Blend the progress text from textColorFrom to textColorTo in linear light instead of in sRGB, so that the
+	 * middle of the blend is not darker than both colors
+	 *
+	 * @param bGammaCorrect
+	 * 		true to blend in linear light
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setGammaCorrectTextBlend(boolean bGammaCorrect) {
+		if (mbGammaCorrectTextBlend != bGammaCorrect) {
+			mbGammaCorrectTextBlend = bGammaCorrect;
+			updateColorTable();
+			mCallback.invalidateRenderer();
+		}
+	}
+
+	/**
+	 * Drive the arc from the frame clock at the given angular velocity. The velocity reduces with
+	 * the progress in the same way as the arc sweep speed. The arc then moves at the same speed irrespective
+	 * of how often the progress is set or the refresh rate of the display, and animates on its own
+	 * without any external invalidation.
+	 *
+	 * @param nDegreesPerSecond
+	 * 		The angular velocity of the arc at 0% progress, in degrees per second. 0 moves the arc by the
+	 * 		sweep speed on each draw instead
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setArcAngularVelocity(float nDegreesPerSecond) {
+		mnArcAngularVelocity = (nDegreesPerSecond < 0.0f) ? 0.0f : nDegreesPerSecond;
+		if (mnArcAngularVelocity > 0.0f)
+			startArcClock();
+		else
+			stopArcClock();
+	}
+
+	/**
+	 * Set the size of the box to draw in
+	 *
+	 * @param w
+	 * 		The width
+	 * @param h
+	 * 		The height
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setSize(int w, int h) {
+		mnWidth = w;
+		mnHeight = h;
+
+		// Initialize the values;
+		ensureInitialized();
+		initializeValues();
+		mnRenderedProgress = NO_RENDERED_PROGRESS;
+		updateProgressRadius();
+	}
+
+	/**
+	 * Draw the spinner. This function does the following:
+	 * 1. Draws the outer ring
+	 * 2. Draws the arc that moves around the ring and updates its position
+	 * 3. Draws an inner circle which grows with the progress
+	 * 4. Draws a text with the current progress value which grows to its max size set by the user
+	 *
+	 * Nothing on this path may allocate, as it runs for every frame of every spinner on screen. This is
+	 * enforced by DashSpinnerAllocationTest
+	 *
+	 * @param canvas
+	 * 		THe canvas to draw on
+	 *
+	 * @author Melvin Lobo
+	 */
+	void draw(Canvas canvas) {
+		ensureInitialized();
+
+		DASH_MODE drawMode = mCurrentDashMode;
+		int nDrawOps = 0;
+
+		/*
+		 * The Outer Ring and the Inner circle. The mnProgressRadius is updated while the circle grows. Each is a single
+		 * op. Frames in which the spinner is not invalidated reuse the display list of the host as it is
+		 */
+		nDrawOps += drawOuterRing(canvas);
+		nDrawOps += drawInnerCircle(canvas);
+
+		/*
+		 * Draw the State Content in the center
+		 */
+		nDrawOps += drawStateContent(canvas);
+
+		/*
+		 * Draw the indeterminate Arc
+		 */
+		nDrawOps += drawArc(canvas);
+
+		mnDrawOpCounts[drawMode.ordinal()] = nDrawOps;
+		mnRenderedProgress = drawMode.equals(DASH_MODE.DOWNLOAD) ? mnProgress : NO_RENDERED_PROGRESS;
+		mnRenderedArcPosition = mnIndeterminateStartPosition;
+	}
+
+	/**
+	 * Get the number of draw ops issued by the last frame drawn in a mode
+	 *
+	 * @param dashMode
+	 * 		The mode
+	 *
+	 * @return
+	 * 		The number of draw ops, or 0 if no frame was drawn in the mode yet
+	 *
+	 * @author Melvin Lobo
+	 */
+	int getDrawOpCount(DASH_MODE dashMode) {
+		return mnDrawOpCounts[dashMode.ordinal()];
+	}
+
+	/**
+	 * @return
+	 * 		The geometry for the current size, or null if the spinner has not been sized or drawn yet
+	 */
+	DashSpinnerGeometry getGeometry() {
+		return mGeometry;
+	}
+
+	/**
+	 * @return
+	 * 		The color table for the current colors, or null if the spinner has not been sized or drawn yet
+	 */
+	ProgressColorTable getColorTable() {
+		return mColorTable;
+	}
+
+	/**
+	 * Set a color filter for everything that is drawn
+	 *
+	 * @param colorFilter
+	 * 		The color filter, or null to remove it
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setColorFilter(ColorFilter colorFilter) {
+		mRingPaint.setColorFilter(colorFilter);
+		mInnerCirclePaint.setColorFilter(colorFilter);
+		mArcPaint.setColorFilter(colorFilter);
+		mGlyphStrokePaint.setColorFilter(colorFilter);
+		mGlyphDotPaint.setColorFilter(colorFilter);
+		if (mTextAtlasPaint != null)
+			mTextAtlasPaint.setColorFilter(colorFilter);
+		mColorFilter = colorFilter;
+		mCallback.invalidateRenderer();
+	}
+
+	/**
+	 * Set the color of the outer ring
+	 *
+	 * @param nColor
+	 * 		The color
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setOuterRingColor(int nColor) {
+		mOuterRingColor = nColor;
+		mRingPaint.setColor(nColor);
+		mCallback.invalidateRenderer();
+	}
+
+	/**
+	 * Set the colors of the inner circle
+	 *
+	 * @param nSuccessColor
+	 * 		The color while downloading and for success
+	 * @param nFailureColor
+	 * 		The color for failure
+	 * @param nUnknownColor
+	 * 		The color for unknown
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setInnerCircleColors(int nSuccessColor, int nFailureColor, int nUnknownColor) {
+		mInnerCircleSuccessColor = nSuccessColor;
+		mInnerCircleFailureColor = nFailureColor;
+		mInnerCircleUnknownColor = nUnknownColor;
+		updateColorTable();
+		mCallback.invalidateRenderer();
+	}
+
+	/**
+	 * @return
+	 * 		The angular velocity of the arc in degrees per second, or 0 if it moves on each draw
+	 *
+	 * @author Melvin Lobo
+	 */
+	float getArcAngularVelocity() {
+		return mnArcAngularVelocity;
+	}
+
+	/**
+	 * @return
+	 * 		true if the arc clock or a transition is animating the spinner
+	 *
+	 * @author Melvin Lobo
+	 */
+	boolean isAnimating() {
+		return mbArcClockRunning || mbTransitionRunning;
+	}
+
+	/**
+	 * Reset the calculated parameters
+	 *
+	 * @author Melvin Lobo
+	 */
+	void resetValues() {
+		mnProgress = 0.0f;
+		mnLastFittedTextSize = 0.0f;
+		mnRenderedProgress = NO_RENDERED_PROGRESS;
+		mCommandWord.clear();
+		mnTransitionProgress = 0.0f;
+		setTransitionRunning(false);
+		mCurrentDashMode = DASH_MODE.NONE;
+		mNextDashMode = DASH_MODE.NONE;
+	}
+
+	/**
+	 * Show a state at once, with the frame it settles on and without replaying any transition. This is the way to
+	 * rebind a spinner to a download that has already ended, for example in a list row. Anything pending, including
+	 * a running transition, is dropped, and the listener is not notified
+	 *
+	 * @param dashMode
+	 * 		The state to show: NONE, DOWNLOAD, SUCCESS, FAILURE or UNKNOWN
+	 * @param nProgress
+	 * 		The progress between 0 and 1. For a result, the progress that the download ended at
+	 *
+	 * @throws IllegalArgumentException
+	 * 		If the mode is one of the transition modes, which only exist while a transition is running
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setState(DASH_MODE dashMode, float nProgress) {
+		if (dashMode.equals(DASH_MODE.TRANSITION_TEXT_AND_CIRCLE) || dashMode.equals(DASH_MODE.TRANSITION_LINE))
+			throw new IllegalArgumentException("A transition mode cannot be set as a state: " + dashMode);
+
+		//Restored or caller supplied values are clamped like the ones given to setProgress
+		nProgress = clampProgress(nProgress);
+		resetValues();
+		if (dashMode.equals(DASH_MODE.DOWNLOAD)) {
+			applyProgress(nProgress);
+		}
+		else if (!dashMode.equals(DASH_MODE.NONE)) {
+			mCurrentDashMode = dashMode;
+			mnProgress = nProgress;
+			mnTransitionProgress = TRANSITION_CAT_START_VAL;        //The symbol of the result, fully formed
+		}
+		updateProgressRadius();
+		mCallback.invalidateRenderer();
+	}
+
+	/**
+	 * Resume a transition to a result part of the way through, for example when the state of the host is restored
+	 *
+	 * @param resultMode
+	 * 		The result that the transition is heading to (SUCCESS, FAILURE or UNKNOWN)
+	 * @param nProgress
+	 * 		The progress that the download ended at
+	 * @param nElapsedNanos
+	 * 		The time that the transition had already run for. See {@link #getTransitionElapsedNanos()}
+	 *
+	 * @author Melvin Lobo
+	 */
+	void resumeTransition(DASH_MODE resultMode, float nProgress, long nElapsedNanos) {
+		resetValues();
+		mnProgress = clampProgress(nProgress);
+		updateProgressRadius();
+		startResultTransition(resultMode);
+		mnTransitionResumeNanos = nElapsedNanos;
+	}
+
+	/**
+	 * @return
+	 * 		The current mode
+	 */
+	DASH_MODE getDashMode() {
+		return mCurrentDashMode;
+	}
+
+	/**
+	 * @return
+	 * 		The current download progress
+	 */
+	float getProgress() {
+		return mnProgress;
+	}
+
+	/**
+	 * @return
+	 * 		The result that the running transition is heading to, or NONE if no transition is running
+	 */
+	DASH_MODE getTransitionResultMode() {
+		return mbTransitionRunning ? mTransitionResultMode : DASH_MODE.NONE;
+	}
+
+	/**
+	 * @return
+	 * 		The time that the running transition has run for, or 0 if it has not drawn its first frame yet
+	 */
+	long getTransitionElapsedNanos() {
+		if (!mbTransitionRunning || (mnTransitionStartNanos < 0))
+			return mnTransitionResumeNanos;
+		return System.nanoTime() - mnTransitionStartNanos;
+	}
+
+	/**
+	 * Set the radius of the inner circle for the download progress, which the transition to a result starts from,
+	 * and the size of the progress text fitted to it, which the text scales down from on transition. Both are
+	 * otherwise updated when a DOWNLOAD frame is drawn, which a restored transition or a state set at once never draws
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void updateProgressRadius() {
+		//Not sized yet. The radius is set once it is
+		if (mGeometry == null)
+			return;
+
+		float nInnerCircleRadius = mGeometry.mnInnerCircleRadius;
+		float nCurrentRadius = nInnerCircleRadius * mnProgress;
+		mnProgressRadius = (nCurrentRadius < nInnerCircleRadius) ? nCurrentRadius : nInnerCircleRadius;
+
+		if (mbShowProgress) {
+			ensureTextResources();
+			mnLastFittedTextSize = mTextSizeCache.getTextSize((int) (mnProgress * MAX_PERCENT), (mnProgressRadius * 2) - mGeometry.mnTextPadding,
+					mAttributes.mnMaxTextSize);
+		}
+	}
+
+	/**
+	 * Initialize the Calculated Values. They only depend on the size, so they are not touched when the state is reset
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void initializeValues() {
+		mGeometry = DashSpinnerGeometry.get(mnWidth, mnHeight, mAttributes.mnRingWidth, mAttributes.mnArcWidth, mAttributes.mnStateLineStroke,
+				mAttributes.mnTextPadding, mAttributes.mnUnknownDotDistance);
+		mRingMask = null;
+	}
+
+
+	/**
+	 * Draw the outer ring. It never changes for a size, so a software canvas blits it from the shared mask of the
+	 * geometry instead of stroking it again. A hardware canvas draws the circle, as the renderer caches its shape
+	 *
+	 * @param canvas
+	 * 		The canvas to draw on
+	 *
+	 * @return
+	 * 		The number of draw ops issued
+	 *
+	 * @author Melvin Lobo
+	 */
+	private int drawOuterRing(Canvas canvas) {
+		//Draw the outer ring
+		if (canvas.isHardwareAccelerated()) {
+			canvas.drawCircle(mGeometry.mnCenterX, mGeometry.mnCenterY, mGeometry.mnRingRadius, mRingPaint);
+		}
+		else {
+			if (mRingMask == null)
+				mRingMask = OuterRingMask.get(mGeometry);
+			mRingMask.draw(canvas, mGeometry.mnCenterX, mGeometry.mnCenterY, mRingPaint);
+		}
+		return 1;
+	}
+
+	/**
+	 * Draw the Inner circle based on the Current Dash Mode. We have to draw for every mode because
+	 * the Inner circle is present in all modes
+	 *
+	 * @param canvas
+	 * 		The canvas to draw on
+	 *
+	 * @return
+	 * 		The number of draw ops issued
+	 *
+	 * @author Melvin Lobo
+	 */
+	private int drawInnerCircle(Canvas canvas) {
+		float nDrawRadius = 0.0f;
+		float nInnerCircleRadius = mGeometry.mnInnerCircleRadius;
+		Paint paint = mInnerCirclePaint;
+		switch (mCurrentDashMode) {
+			case DOWNLOAD: {
+				/*
+				 * This circle will grow with the progress and its alpha will change
+				 * accordingly
+				 */
+				paint.setColor(mColorTable.getInnerCircleColor(mnProgress));        // Alpha according to the progress (0..255)
+
+				float nCurrentRadius = nInnerCircleRadius * mnProgress;
+				mnProgressRadius = (nCurrentRadius < nInnerCircleRadius) ? nCurrentRadius : nInnerCircleRadius;
+				nDrawRadius = mnProgressRadius;
+			}
+			break;
+			case TRANSITION_TEXT_AND_CIRCLE:
+			case TRANSITION_LINE: {
+				/*
+				 * Draw the transition from the already existing radius and alpha to the Error / Unknown Circle
+				 */
+				if (mNextDashMode.equals(DASH_MODE.FAILURE) || mNextDashMode.equals(DASH_MODE.UNKNOWN)) {
+					paint.setColor((mNextDashMode.equals(DASH_MODE.FAILURE) ? mInnerCircleFailureColor : mInnerCircleUnknownColor));
+
+					if (mCurrentDashMode.equals(DASH_MODE.TRANSITION_TEXT_AND_CIRCLE)) {
+						/*
+						 * Once we move to transition. specially for Failure and Unknown we need to do the following values
+						 * to start from:
+						 * 1. The transitionary radius for drawing the remainder of the circle will depend on mnProgress
+						 *    This is because, if we get a failure or unknown error when the download fails, we will transition
+						 *    from the current size of the Inner circle radius (based on the download progress). But since the transition progress for this animation
+						 *    begins with 1.0f and ends at 0.0f, we first inverse mnTransitionProgress, get the radii difference between
+						 *    the current radius and the final radius and apply the inverse of mnTransitionProgress to this value
+						 * 2. The color for failure will have to be set, but the blending will begin from where mnProgress left off
+						 *    So, we will calculate the remaining difference from the Current value where it has failed to the final
+						 *    alpha value (1.0) and apply the inverse values of mnTransitionProgress to this difference
+						 */
+						float nInverseTransition = 1 - mnTransitionProgress;
+
+						nDrawRadius = mnProgressRadius /*The previous radius, if any*/ +
+									  ((nInnerCircleRadius - mnProgressRadius) * nInverseTransition) /*The differential transitional radius*/;
+
+						paint.setAlpha(getInnerCircleAlpha() /*The previous Alpha, if any*/+
+										((int) ((MAX_ALPHA - getInnerCircleAlpha()) * nInverseTransition))) /*The differential transitional alpha*/;
+					}
+					/*Draw the circle with UNKNOWN / FAILURE color and full alpha*/
+					else {
+						paint.setAlpha(MAX_ALPHA);
+						nDrawRadius = nInnerCircleRadius;
+					}
+				}
+				/*
+				 * Else, just draw the success circle with full alpha
+				 */
+				else {
+					paint.setColor(mInnerCircleSuccessColor);
+					paint.setAlpha(MAX_ALPHA);        // Alpha according to the progress (0..255)
+					nDrawRadius = nInnerCircleRadius;
+				}
+			}
+			break;
+			case SUCCESS: {
+				/*
+				 * Draw for Failure with Full Alpha
+				 */
+				paint.setColor(mInnerCircleSuccessColor);
+				paint.setAlpha(MAX_ALPHA);
+				nDrawRadius = nInnerCircleRadius;
+			}
+			break;
+			case FAILURE: {
+				/*
+				 * Draw for Failure with Full Alpha
+				 */
+				paint.setColor(mInnerCircleFailureColor);
+				paint.setAlpha(MAX_ALPHA);
+				nDrawRadius = nInnerCircleRadius;
+			}
+			break;
+			case UNKNOWN: {
+				/*
+				 * Draw for Unknown with Full Alpha
+				 */
+				paint.setColor(mInnerCircleUnknownColor);
+				paint.setAlpha(MAX_ALPHA);
+				nDrawRadius = nInnerCircleRadius;
+			}
+			break;
+		}
+		canvas.drawCircle(mGeometry.mnCenterX, mGeometry.mnCenterY, nDrawRadius, paint);
+		return 1;
+	}
+
+	/**
+	 * Get the alpha values based on the progress (0..255)
+	 * @return
+	 * 		The alpha value of the color based on the progress
+	 *
+	 * @author Melvin Lobo
+	 */
+	private int getInnerCircleAlpha() {
+		return getInnerCircleAlpha(mnProgress);
+	}
+
+	/**
+	 * Get the alpha value for a progress (0..255)
+	 *
+	 * @param nProgress
+	 * 		The progress between 0 and 1
+	 *
+	 * @return
+	 * 		The alpha value of the color for the progress
+	 *
+	 * @author Melvin Lobo
+	 */
+	private int getInnerCircleAlpha(float nProgress) {
+		return mColorTable.getInnerCircleAlpha(nProgress);
+	}
+
+	/**
+	 * Draw the state content. The state content can be the percent value of the progress (If the user
+	 * elects to draw it), the transition to other states and that state content themselves (SUCCESS,
+	 * FAILURE OR UNKNOWN). We have to draw for all modes, as the Content is a part of all modes.
+	 * Each glyph is submitted as a single batch of line segments
+	 *
+	 * @param canvas
+	 * 		The canvas to draw on
+	 *
+	 * @return
+	 * 		The number of draw ops issued
+	 *
+	 * @author Melvin Lobo
+	 */
+	private int drawStateContent(Canvas canvas) {
+		DashSpinnerGeometry geometry = mGeometry;
+		float appropriateFontSize = 0.0f;
+		int nDrawOps = 0;
+		switch (mCurrentDashMode) {
+				/*
+				 * The DOWNLOAD and TRANSITION_TEXT_AND_CIRCLE modes are similar except that in the
+				 * TRANSITION_TEXT_AND_CIRCLE mode, the text is scaling down instead of up
+				 * and we have complete alpha
+				 * Note (Mode case TRANSITION_TEXT_AND_CIRCLE):
+				 * Draw the text till the scale down reaches TEXT_SCALE_DOWN_PERCENT_VALUE % of its size. After that draw a circle
+				 * for the rest of the TEXT_SCALE_DOWN_PERCENT_VALUE % of the animation time. Then the next animation of growing the line starts
+				 */
+			case DOWNLOAD:
+			case TRANSITION_TEXT_AND_CIRCLE: {
+				/*
+				 * Draw the small Circle instead of text
+				 */
+				if (mCurrentDashMode.equals(DASH_MODE.TRANSITION_TEXT_AND_CIRCLE) && (mnTransitionProgress < (TRANSITION_CAT_START_VAL * TEXT_SCALE_DOWN_PERCENT_VALUE))) {
+					/*
+					 * Draw a circle till the next animation starts
+					 */
+					canvas.drawCircle(geometry.mnCenterX, geometry.mnCenterY, geometry.mnStateDotRadius, mGlyphDotPaint);
+					nDrawOps++;
+				}
+				/*
+				 * Draw the text
+				 */
+				else {
+					//Draw the download progress if the User wants it
+					if(mbShowProgress) {
+						ensureTextResources();
+
+						/*
+						 * The Percentage Text. Calculate the size of the text as per the center circle till it reaches the size
+						 * that the user desires
+						 */
+						int nPercent = (int) (mnProgress * MAX_PERCENT);
+						msProgressText = PERCENT_STRINGS[nPercent];        //The percentage value string
+						boolean bScaleText = mbScaleTextOnTransition && mCurrentDashMode.equals(DASH_MODE.TRANSITION_TEXT_AND_CIRCLE);
+						if (bScaleText) {
+							appropriateFontSize = mnLastFittedTextSize;
+						}
+						else {
+							float nTextWidth = ((mCurrentDashMode.equals(DASH_MODE.DOWNLOAD)) ? (mnProgressRadius * 2) : (mnProgressRadius * mnTransitionProgress * 2)) - geometry.mnTextPadding;
+							appropriateFontSize = mTextSizeCache.getTextSize(nPercent, nTextWidth, mAttributes.mnMaxTextSize);
+							mnLastFittedTextSize = appropriateFontSize;
+						}
+
+						/*
+						 * Draw the text from the glyph atlas, centered in the view. The atlas only holds the coverage of the glyphs,
+						 * so the color comes from the paint. When the text is scaled on transition, it shrinks around the center
+						 * with the transition progress (1 to 0)
+						 */
+						if (appropriateFontSize > 0.0f) {
+							int nSaveCount = 0;
+							if (bScaleText) {
+								nSaveCount = canvas.save();
+								canvas.scale(mnTransitionProgress, mnTransitionProgress, geometry.mnCenterX, geometry.mnCenterY);
+							}
+
+							mTextAtlasPaint.setColor((mCurrentDashMode.equals(DASH_MODE.DOWNLOAD)) ? mColorTable.getTextColor(mnProgress) : mAttributes.mTextColorTo);
+							nDrawOps += getTextAtlas(appropriateFontSize).draw(canvas, msProgressText, geometry.mnCenterX, geometry.mnCenterY, appropriateFontSize,
+									mTextAtlasPaint, mTextAtlasSrcRect, mTextAtlasDstRect);
+
+							if (bScaleText)
+								canvas.restoreToCount(nSaveCount);
+						}
+					}
+				}
+			}
+			break;
+			case TRANSITION_LINE: {
+				float nDiffLength = geometry.mnLineWidth * mnTransitionProgress;        // The line length based on the transition progress
+
+				/*
+				 * The line will be at different positions based on the Status Mode (SUCCESS, FAILURE
+				 * OR UNKNOWN). This is because we would need the line slightly offset in the X position
+				 * from the center for a SUCCESS as the dynamics of it converting to a tick would be different.
+				 * The tick "joint" would be a shorter ratio of the entire line
+				 */
+				if (mNextDashMode.equals(DASH_MODE.SUCCESS)) {
+					float nStart = geometry.mnCenterX - (geometry.mnTickShortArmLength * mnTransitionProgress);        // The short arm ratio of the line length
+					float nEnd = geometry.mnCenterX + (geometry.mnTickLongArmLength * mnTransitionProgress);            // The long arm ratio of the line length
+					canvas.drawLine(nStart, geometry.mnCenterY, nEnd, geometry.mnCenterY, mGlyphStrokePaint);
+				}
+				else {
+					canvas.drawLine(geometry.mnCenterX - (nDiffLength / 2), geometry.mnCenterY, geometry.mnCenterX + (nDiffLength / 2), geometry.mnCenterY, mGlyphStrokePaint);
+				}
+				nDrawOps++;
+			}
+			break;
+			case SUCCESS: {
+				/*
+				 *   		  /
+				 * 			\/
+				 * 			^
+				 * 		Tick Joint
+				 *
+				 * We first draw the short arm of the tick at a downward angle of ARM_ANGLE.
+				 * The Mathematical equation for finding the end point to draw such a line is:
+				 *
+				 * X Position = Start Point + Length of the Line * cos( Angle that the line has to be drawn on)
+				 * Y Position = Start Point + Length of the Line * sin( Angle that the line has to be drawn on)
+				 *
+				 * In order for the tick joint to be shown around the Y pos of center of the View, the short arm will have to end
+				 * around that position. So, we will need to calculate the X co-ordinate of start position for the short arm,
+				 * based on the end position (which will be fixed since we want it to be based around the end position,
+				 * View Center) of the short arm. So we reverse the above equation to Calculate the start position.
+				 * X Postion Start = X Postion End - Length of the Line * cos( Angle that the line has to be drawn on)
+				 * We than use the above calculations to draw the long arm at an angle -ARM_ANGLE
+				 * from the endpoint of the shorter arm.
+				 * We transition the angles using the interpolator to animate the tick forming from the line.
+				 * The end points are precomputed over the transition progress by the glyph geometry
+				 */
+				float[] points = getGlyphPoints();
+				geometry.mGlyphs.getTick(mnTransitionProgress, points);
+				canvas.drawLines(points, 0, DashGlyphGeometry.TICK_POINT_COUNT, mGlyphStrokePaint);
+				nDrawOps++;
+			}
+			break;
+			case FAILURE: {
+				/*
+				 * The arm length for the cross is Half of mnLineLength. We will transition each arm
+				 * with angles (ARM_ANGLE, -ARM_ANGLE, 180 - ARM_ANGLE, 180 + ARM_ANGLE) for each quadrant
+				 * beginning from the horizontal X-Axis. We calculate the end points for the lines in each
+				 * quadrant based on the Equations:
+				 *
+				 * X Position = Start Point + Length of the Line * cos( Angle that the line has to be drawn on)
+				 * Y Position = Start Point + Length of the Line * sin( Angle that the line has to be drawn on)
+				 *
+				 * The end points are precomputed over the transition progress by the glyph geometry
+				 */
+				float[] points = getGlyphPoints();
+				geometry.mGlyphs.getCross(mnTransitionProgress, points);
+				canvas.drawLines(points, 0, DashGlyphGeometry.CROSS_POINT_COUNT, mGlyphStrokePaint);
+				nDrawOps++;
+			}
+			break;
+			case UNKNOWN: {
+				/*
+				 * For Unknown, we just draw a line and a dot below it. The canvas is rotated for transition
+				 * and the distance between the line and dot increases to its final value. The end points are
+				 * precomputed over the transition progress by the glyph geometry
+				 */
+				float[] points = getGlyphPoints();
+				geometry.mGlyphs.getExclamation(mnTransitionProgress, points);
+				canvas.drawLines(points, 0, DashGlyphGeometry.EXCLAMATION_LINE_POINT_COUNT, mGlyphStrokePaint);
+				canvas.drawCircle(points[DashGlyphGeometry.EXCLAMATION_LINE_POINT_COUNT], points[DashGlyphGeometry.EXCLAMATION_LINE_POINT_COUNT + 1], geometry.mnStateDotRadius,
+						mGlyphStrokePaint);
+				nDrawOps += 2;
+			}
+			break;
+		}
+		return nDrawOps;
+	}
+
+	/**
+	 * Allocate the resources for the progress text, the first time that it is drawn. The measured percentage strings
+	 * are shared by all spinners, so that fitting the progress text while drawing costs a single division
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void ensureTextResources() {
+		if (mTextSizeCache != null)
+			return;
+
+		mTextAtlasPaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG);
+		mTextAtlasPaint.setColorFilter(mColorFilter);
+		mTextAtlases = new ProgressTextAtlas[Integer.SIZE];
+		mTextAtlasSrcRect = new Rect();
+		mTextAtlasDstRect = new RectF();
+		mTextSizeCache = ProgressTextSizeCache.get(getProgressTypeface(), PERCENT_STRINGS);
+	}
+
+	/**
+	 * Get the array to write the points of a glyph into, allocating it for the first glyph
+	 *
+	 * @return
+	 * 		The array, large enough for any glyph
+	 *
+	 * @author Melvin Lobo
+	 */
+	private float[] getGlyphPoints() {
+		if (mnGlyphPoints == null)
+			mnGlyphPoints = new float[DashGlyphGeometry.CROSS_POINT_COUNT];
+		return mnGlyphPoints;
+	}
+
+	/**
+	 * Get the glyph atlas to draw the progress text at a size with. The atlases are shared by all spinners, and each
+	 * spinner keeps the ones that it has used, so that it only looks them up when it first reaches a size bucket.
+	 * The progress text must have been drawn, which allocates the text resources
+	 *
+	 * @param nTextSize
+	 * 		The text size
+	 *
+	 * @return
+	 * 		The atlas
+	 *
+	 * @author Melvin Lobo
+	 */
+	ProgressTextAtlas getTextAtlas(float nTextSize) {
+		int nBucketSize = ProgressTextAtlas.getBucketSize(nTextSize);
+		int nBucketIndex = Integer.numberOfTrailingZeros(nBucketSize);
+		ProgressTextAtlas atlas = mTextAtlases[nBucketIndex];
+		if (atlas == null) {
+			atlas = ProgressTextAtlas.get(getProgressTypeface(), nBucketSize);
+			mTextAtlases[nBucketIndex] = atlas;
+		}
+		return atlas;
+	}
+
+	/**
+	 * Draw the arc around the ring only for the DOWNLOAD mode
+	 *
+	 * @param canvas
+	 * 		The canvas to draw on
+	 *
+	 * @return
+	 * 		The number of draw ops issued
+	 *
+	 * @author Melvin Lobo
+	 */
+	private int drawArc(Canvas canvas) {
+		/*
+		 * For every progress increase of 1%, decrease speed by 1%
+		 * The goal of the progress is to reach 1.0, while that of the speed is to reach 0.0
+		 * When the arc is driven by the frame clock, it is moved in stepArc instead
+		 */
+		if(mCurrentDashMode.equals(DASH_MODE.DOWNLOAD)) {
+			if (mnArcAngularVelocity <= 0.0f) {
+				mnIndeterminateStartPosition += (1 - mnProgress) * mAttributes.mnStartSpeed;
+				if ((mnIndeterminateStartPosition > CIRCULAR_FACTOR) || (mnIndeterminateStartPosition < 0)) {
+					mnIndeterminateStartPosition = 0;
+				}
+			}
+
+			canvas.drawArc(mGeometry.mArcRect, mnIndeterminateStartPosition, mAttributes.mnArcLength, false, mArcPaint);
+			return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Start the frame clock for the arc, if the arc is driven by it and we are downloading.
+	 * Must be called on the thread that owns the host
+	 *
+	 * @author Melvin Lobo
+	 */
+	void startArcClock() {
+		if (!mbSuspended && !mbArcClockRunning && (mnArcAngularVelocity > 0.0f) && mCurrentDashMode.equals(DASH_MODE.DOWNLOAD)) {
+			mbArcClockRunning = true;
+			mnLastArcFrameTimeNanos = 0;
+			DashSpinnerTicker.getInstance().register(mTickerClient);
+		}
+	}
+
+	/**
+	 * Stop the frame clock for the arc. The ticker lets go of the spinner on the next frame if it has nothing
+	 * else to animate
+	 *
+	 * @author Melvin Lobo
+	 */
+	void stopArcClock() {
+		mbArcClockRunning = false;
+	}
+
+	/**
+	 * Suspend the spinner while its host is detached or hidden. The arc stops where it is, and the ticker and the
+	 * host handler let go of the spinner, so that a host that is gone can be collected. Commands set in the meantime
+	 * are still applied on the next frame. A running transition keeps the ticker until it ends, so that the listener
+	 * is told on time even if the host is never shown again. Must be called on the thread that owns the host
+	 *
+	 * @author Melvin Lobo
+	 */
+	void suspend() {
+		if (mbSuspended)
+			return;
+
+		mbSuspended = true;
+		stopArcClock();
+
+		//The handoff or the frame that would have drained the pending commands is dropped, so drain them now
+		mHostHandler.removeCallbacks(mRequestFramesRunnable);
+		if (mCommandWord.isDrainScheduled())
+			drainCommands();
+
+		if (!mbTransitionRunning)
+			DashSpinnerTicker.getInstance().unregister(mTickerClient);
+	}
+
+	/**
+	 * Resume the spinner once its host is attached and shown again. The arc carries on from where it was suspended.
+	 * A transition runs on the frame clock while the host is hidden, so it shows the point it has reached by now,
+	 * or its result if it has ended. Must be called on the thread that owns the host
+	 *
+	 * @author Melvin Lobo
+	 */
+	void resume() {
+		if (!mbSuspended)
+			return;
+
+		mbSuspended = false;
+		startArcClock();
+		if (mbTransitionRunning || mCommandWord.isDrainScheduled())
+			DashSpinnerTicker.getInstance().register(mTickerClient);
+		mCallback.invalidateRenderer();
+	}
+
+	/**
+	 * Advance the spinner to the frame time: drain the pending commands, move the arc if it is driven by the frame
+	 * clock and step the running transition. Called by the frame ticker, also while the spinner is suspended, in
+	 * which case the arc clock is stopped
+	 *
+	 * @param frameTimeNanos
+	 * 		The frame time from the Choreographer
+	 *
+	 * @return
+	 * 		true if the spinner needs the next frame as well
+	 *
+	 * @author Melvin Lobo
+	 */
+	private boolean onFrame(long frameTimeNanos) {
+		drainCommands();
+
+		if (mbArcClockRunning)
+			stepArc(frameTimeNanos);
+
+		if (mbTransitionRunning && stepTransition(frameTimeNanos)) {
+			/*
+			 * The transition ended on this frame. Tell the listener now, and ask again what needs frames, as it may
+			 * already have rebound the spinner to another download
+			 */
+			if (mOnDownloadIntimationListener != null)
+				mOnDownloadIntimationListener.onDownloadIntimationDone(mCurrentDashMode);
+			return mbArcClockRunning || mbTransitionRunning || mCommandWord.isDrainScheduled();
+		}
+
+		return mbArcClockRunning || mbTransitionRunning;
+	}
+
+	/**
+	 * Move the arc by the time elapsed since the last frame. The clock stops itself once the download is over
+	 *
+	 * @param frameTimeNanos
+	 * 		The frame time from the Choreographer
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void stepArc(long frameTimeNanos) {
+		if (!mCurrentDashMode.equals(DASH_MODE.DOWNLOAD)) {
+			mbArcClockRunning = false;
+			return;
+		}
+
+		if (mnLastArcFrameTimeNanos != 0) {
+			float nDeltaSeconds = (frameTimeNanos - mnLastArcFrameTimeNanos) / NANOS_PER_SECOND;
+			nDeltaSeconds = (nDeltaSeconds < 0.0f) ? 0.0f : ((nDeltaSeconds > MAX_ARC_FRAME_DELTA_SECONDS) ? MAX_ARC_FRAME_DELTA_SECONDS : nDeltaSeconds);
+			mnIndeterminateStartPosition = (mnIndeterminateStartPosition + ((1 - mnProgress) * mnArcAngularVelocity * nDeltaSeconds)) % CIRCULAR_FACTOR;
+		}
+		mnLastArcFrameTimeNanos = frameTimeNanos;
+
+		/*
+		 * Near the end of the download the arc barely moves. Only redraw once it has moved far enough to show
+		 */
+		mnRedrawRequests++;
+		if ((mnRenderedProgress != NO_RENDERED_PROGRESS) &&
+				((int) (mnIndeterminateStartPosition / ARC_POSITION_QUANTUM) == (int) (mnRenderedArcPosition / ARC_POSITION_QUANTUM)))
+			mnSkippedRedraws++;
+		else
+			mCallback.invalidateRenderer();
+	}
+
+	/**
+	 * Set the progress. This can be called from any thread and as often as needed: all the progress
+	 * set between two frames is coalesced into a single invalidation and redraw with the latest value.
+	 * The progress is applied only if the Spinner is downloading or has just been initialized
+	 *
+	 * @param nProgress
+	 * 		The float value of progress between 0 and 1
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setProgress(float nProgress) {
+		int nOfferResult = mCommandWord.offerProgress(clampProgress(nProgress));
+		if (nOfferResult == DashCommandWord.OFFER_SCHEDULE)
+			scheduleDrain();
+		else if (nOfferResult == DashCommandWord.OFFER_COALESCED)
+			mnCoalescedProgressUpdates.incrementAndGet();
+	}
+
+	/**
+	 * Clamp a progress between 0 and 1, as the progress indexes the per-percent tables
+	 *
+	 * @param nProgress
+	 * 		The progress
+	 *
+	 * @return
+	 * 		The progress between 0 and 1
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static float clampProgress(float nProgress) {
+		return (nProgress < 0.0f) ? 0.0f : ((nProgress > 1.0f) ? 1.0f : nProgress);
+	}
+
+	/**
+	 * Read the progress from an aggregator of chunk progress, for downloads that are split into chunks downloaded
+	 * in parallel. The chunks report their bytes to the aggregator from their own threads, and the spinner reads
+	 * the weighted total once per frame in which something was reported. The progress is also read once when the
+	 * aggregator is bound, as a paused download may not report anything for a while
+	 *
+	 * @param aggregator
+	 * 		The aggregator, or null to stop reading from it
+	 *
+	 * @author Melvin Lobo
+	 */
+	void setProgressAggregator(ChunkProgressAggregator aggregator) {
+		if (mProgressAggregator != null)
+			mProgressAggregator.clearOnChunkProgressListener(mOnChunkProgressListener);
+
+		mProgressAggregator = aggregator;
+		if (aggregator != null) {
+			aggregator.setOnChunkProgressListener(mOnChunkProgressListener);
+			setProgress(aggregator.getProgress());
+		}
+	}
+
+	/**
+	 * Get the number of progress updates that did not cause a redraw of their own, because they were
+	 * coalesced into a frame that was already requested
+	 *
+	 * @return
+	 * 		The number of coalesced progress updates
+	 *
+	 * @author Melvin Lobo
+	 */
+	long getCoalescedProgressUpdateCount() {
+		return mnCoalescedProgressUpdates.get();
+	}
+
+	/**
+	 * Get the number of redraws that were requested for a progress or an arc change. See {@link #getSkippedRedrawCount()}
+	 *
+	 * @return
+	 * 		The number of requested redraws
+	 *
+	 * @author Melvin Lobo
+	 */
+	long getRedrawRequestCount() {
+		return mnRedrawRequests;
+	}
+
+	/**
+	 * Get the number of requested redraws that were skipped, as they would have drawn the same frame again.
+	 * Divided by {@link #getRedrawRequestCount()}, this is the skip rate
+	 *
+	 * @return
+	 * 		The number of skipped redraws
+	 *
+	 * @author Melvin Lobo
+	 */
+	long getSkippedRedrawCount() {
+		return mnSkippedRedraws;
+	}
+
+	/**
+	 * Show Success. Can be called from any thread; the transition starts on the next frame
+	 *
+	 * @author Melvin Lobo
+	 */
+	void showSuccess() {
+		if (mCommandWord.offerCommand(DashCommandWord.COMMAND_SUCCESS))
+			scheduleDrain();
+	}
+
+	/**
+	 * Show Failure. Can be called from any thread; the transition starts on the next frame
+	 *
+	 * @author Melvin Lobo
+	 */
+	void showFailure() {
+		if (mCommandWord.offerCommand(DashCommandWord.COMMAND_FAILURE))
+			scheduleDrain();
+	}
+
+	/**
+	 * Show Unknown. Can be called from any thread; the transition starts on the next frame
+	 *
+	 * @author Melvin Lobo
+	 */
+	void showUnknown() {
+		if (mCommandWord.offerCommand(DashCommandWord.COMMAND_UNKNOWN))
+			scheduleDrain();
+	}
+
+	/**
+	 * Schedule a drain of the pending commands on the next frame, on the thread that owns the host
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void scheduleDrain() {
+		if (Looper.myLooper() == mHostHandler.getLooper())
+			DashSpinnerTicker.getInstance().register(mTickerClient);
+		else
+			mHostHandler.post(mRequestFramesRunnable);
+	}
+
+	/**
+	 * Apply the progress and result commands set since the last frame. The progress is applied before
+	 * the result, and only while downloading, as it was set before the result. Runs once per frame
+	 * on the thread that owns the host
+	 *
+	 * @author Melvin Lobo
+	 */
+	void drainCommands() {
+		long nCommands = mCommandWord.drain();
+
+		if (DashCommandWord.hasProgress(nCommands))
+			applyProgress(DashCommandWord.getProgress(nCommands));
+
+		ChunkProgressAggregator aggregator = mProgressAggregator;
+		if ((aggregator != null) && aggregator.consumeChanged())
+			applyProgress(aggregator.getProgress());
+
+		switch (DashCommandWord.getCommand(nCommands)) {
+			case DashCommandWord.COMMAND_SUCCESS:
+				startResultTransition(DASH_MODE.SUCCESS);
+				break;
+			case DashCommandWord.COMMAND_FAILURE:
+				startResultTransition(DASH_MODE.FAILURE);
+				break;
+			case DashCommandWord.COMMAND_UNKNOWN:
+				startResultTransition(DASH_MODE.UNKNOWN);
+				break;
+		}
+	}
+
+	/**
+	 * Apply the progress, if the Spinner is downloading or has just been initialized
+	 *
+	 * @param nProgress
+	 * 		The progress between 0 and 1
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void applyProgress(float nProgress) {
+		if (mCurrentDashMode.equals(DASH_MODE.NONE) || mCurrentDashMode.equals(DASH_MODE.DOWNLOAD)) {
+			boolean bStarted = mCurrentDashMode.equals(DASH_MODE.NONE);
+			mCurrentDashMode = DASH_MODE.DOWNLOAD;
+			mnProgress = nProgress;
+
+			/*
+			 * A progress change that does not change what is drawn does not need a frame. This only holds when the
+			 * frame clock drives the arc; otherwise the arc moves on every draw, so every frame is a new one
+			 */
+			mnRedrawRequests++;
+			if ((mnArcAngularVelocity > 0.0f) && isSameDownloadFrame(mnRenderedProgress, nProgress))
+				mnSkippedRedraws++;
+			else
+				mCallback.invalidateRenderer();
+
+			//The download has just begun. Start the arc clock if it drives the arc
+			if (bStarted)
+				startArcClock();
+		}
+	}
+
+	/**
+	 * Check if two progress values draw the same DOWNLOAD frame, by comparing what the frame is drawn from as it
+	 * reaches the pixels: the radius of the inner circle in whole pixels, its alpha, and when the text is shown,
+	 * the percentage and the blended text color
+	 *
+	 * @param nRenderedProgress
+	 * 		The progress of the last frame drawn, or NO_RENDERED_PROGRESS
+	 * @param nProgress
+	 * 		The new progress
+	 *
+	 * @return
+	 * 		true if the new progress draws the same frame
+	 *
+	 * @author Melvin Lobo
+	 */
+	private boolean isSameDownloadFrame(float nRenderedProgress, float nProgress) {
+		if (nRenderedProgress == NO_RENDERED_PROGRESS)
+			return false;
+
+		float nInnerCircleRadius = mGeometry.mnInnerCircleRadius;
+		if ((int) Math.min(nInnerCircleRadius * nRenderedProgress, nInnerCircleRadius) != (int) Math.min(nInnerCircleRadius * nProgress, nInnerCircleRadius))
+			return false;
+		if (getInnerCircleAlpha(nRenderedProgress) != getInnerCircleAlpha(nProgress))
+			return false;
+		if (mbShowProgress) {
+			if ((int) (nRenderedProgress * MAX_PERCENT) != (int) (nProgress * MAX_PERCENT))
+				return false;
+			if (mColorTable.getTextColor(nRenderedProgress) != mColorTable.getTextColor(nProgress))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Start the transition to a result. If a transition is already running, it starts over
+	 *
+	 * @param resultMode
+	 * 		The mode to transition to (SUCCESS, FAILURE or UNKNOWN)
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void startResultTransition(DASH_MODE resultMode) {
+		if (mTransitionTimeline == null)
+			mTransitionTimeline = new TransitionTimeline(TRANSITION_ANIM_DURATION * NANOS_PER_MILLI);
+
+		mTransitionResultMode = resultMode;
+		mnTransitionStartNanos = -1;
+		mnTransitionResumeNanos = 0;
+		applyTransitionPhase(TransitionTimeline.PHASE_TEXT_AND_CIRCLE, TRANSITION_CAT_START_VAL);
+		setTransitionRunning(true);
+		DashSpinnerTicker.getInstance().register(mTickerClient);
+	}
+
+	/**
+	 * Step the running transition to the frame time, by seeking the transition timeline to the time since the
+	 * transition started. See {@link TransitionTimeline} for the phases. The transition ends on the frame that
+	 * reaches the end of the timeline
+	 *
+	 * @param frameTimeNanos
+	 * 		The frame time from the Choreographer
+	 *
+	 * @return
+	 * 		true if the transition ended on this frame
+	 *
+	 * @author Melvin Lobo
+	 */
+	private boolean stepTransition(long frameTimeNanos) {
+		if (mnTransitionStartNanos < 0)
+			mnTransitionStartNanos = frameTimeNanos - mnTransitionResumeNanos;
+
+		int nLastPhase = mTransitionTimeline.getPhase();
+		boolean bEnded = mTransitionTimeline.seek(frameTimeNanos - mnTransitionStartNanos);
+		int nPhase = mTransitionTimeline.getPhase();
+		applyTransitionPhase(nPhase, mTransitionTimeline.getProgress());
+
+		//The result is only held on screen, so there is nothing new to draw once the hold has begun
+		if ((nPhase != TransitionTimeline.PHASE_HOLD) || (nLastPhase != TransitionTimeline.PHASE_HOLD))
+			mCallback.invalidateRenderer();
+
+		if (bEnded)
+			setTransitionRunning(false);
+		return bEnded;
+	}
+
+	/**
+	 * Show a point of the transition: set the mode of its phase and the transition progress
+	 *
+	 * @param nPhase
+	 * 		The phase of the {@link TransitionTimeline}
+	 * @param nProgress
+	 * 		The progress of the phase
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void applyTransitionPhase(int nPhase, float nProgress) {
+		switch (nPhase) {
+			case TransitionTimeline.PHASE_TEXT_AND_CIRCLE:
+				mCurrentDashMode = DASH_MODE.TRANSITION_TEXT_AND_CIRCLE;
+				mNextDashMode = mTransitionResultMode;
+				break;
+			case TransitionTimeline.PHASE_LINE:
+				mCurrentDashMode = DASH_MODE.TRANSITION_LINE;
+				mNextDashMode = mTransitionResultMode;
+				break;
+			default:
+				mCurrentDashMode = mTransitionResultMode;
+				mNextDashMode = DASH_MODE.NONE;
+				break;
+		}
+		mnTransitionProgress = nProgress;
+	}
+
+	/**
+	 * Set if a transition is running
+	 *
+	 * @param bRunning
+	 * 		true if a transition is running
+	 *
+	 * @author Melvin Lobo
+	 */
+	private void setTransitionRunning(boolean bRunning) {
+		mbTransitionRunning = bRunning;
+	}
+
+	//////////////////////////////////////// INTERFACE /////////////////////////////////////////
+
+	/**
+	 * Interface for the host that the renderer draws into
+	 *
+	 * @author Melvin Lobo
+	 */
+	interface Callback {
+		/**
+		 * Invalidate the host so that the spinner is redrawn. Called on the thread that owns the host
+		 *
+		 * @author Melvin Lobo
+		 */
+		void invalidateRenderer();
+	}
+}
@@ -0,0 +1,149 @@
+package com.abysmel.dashspinner;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * The frame clock shared by every Dash Spinner on a thread.
+ *
+ * Instead of each spinner running its own animators and frame callbacks, a spinner registers with the ticker
+ * only while it has something to animate (the arc, a transition or pending commands). The ticker posts one
+ * Choreographer callback per frame and ticks every registered spinner from it, so the work per frame scales
+ * with the number of spinners that are animating, not with the number of spinners that exist.
+ *
+ * Like the Choreographer that drives it, each thread with a looper has a ticker of its own, which only that thread
+ * uses. Spinners hosted on another looper thread are ticked by the ticker of that thread, so the clients of a ticker
+ * are never touched by two threads and need no locking.
+ */
+final class DashSpinnerTicker implements Choreographer.FrameCallback {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * The ticker of each thread
+	 */
+	private static final ThreadLocal<DashSpinnerTicker> sInstances = new ThreadLocal<DashSpinnerTicker>() {
+		@Override
+		protected DashSpinnerTicker initialValue() {
+			return new DashSpinnerTicker();
+		}
+	};
+
+	/**
+	 * The registered clients
+	 */
+	private final ArrayList<Client> mClients = new ArrayList<>();
+
+	/**
+	 * The clients being ticked in the current frame. Reused across frames, so that clients can register or
+	 * unregister while they are ticked
+	 */
+	private final ArrayList<Client> mTickingClients = new ArrayList<>();
+
+	/**
+	 * If the frame callback is posted
+	 */
+	private boolean mbPosted = false;
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Get the ticker of the calling thread. The thread must have a looper for the ticker to post its frames
+	 *
+	 * @return
+	 * 		The ticker
+	 *
+	 * @author Melvin Lobo
+	 */
+	static DashSpinnerTicker getInstance() {
+		return sInstances.get();
+	}
+
+	/**
+	 * Private constructor. There is one ticker per thread
+	 */
+	private DashSpinnerTicker() {
+	}
+
+	/**
+	 * Register a client to be ticked from the next frame on, until it asks to stop. Registering a client that
+	 * is already registered has no effect
+	 *
+	 * @param client
+	 * 		The client
+	 *
+	 * @author Melvin Lobo
+	 */
+	void register(Client client) {
+		if (!mClients.contains(client))
+			mClients.add(client);
+
+		if (!mbPosted) {
+			mbPosted = true;
+			Choreographer.getInstance().postFrameCallback(this);
+		}
+	}
+
+	/**
+	 * Stop ticking a client
+	 *
+	 * @param client
+	 * 		The client
+	 *
+	 * @author Melvin Lobo
+	 */
+	void unregister(Client client) {
+		mClients.remove(client);
+	}
+
+	/**
+	 * @return
+	 * 		The number of clients being ticked
+	 *
+	 * @author Melvin Lobo
+	 */
+	int getClientCount() {
+		return mClients.size();
+	}
+
+	@Override
+	public void doFrame(long frameTimeNanos) {
+		mbPosted = false;
+
+		mTickingClients.addAll(mClients);
+		for (int nIndex = 0; nIndex < mTickingClients.size(); nIndex++) {
+			Client client = mTickingClients.get(nIndex);
+			if (!client.onTick(frameTimeNanos))
+				mClients.remove(client);
+		}
+		mTickingClients.clear();
+
+		if (!mbPosted && !mClients.isEmpty()) {
+			mbPosted = true;
+			Choreographer.getInstance().postFrameCallback(this);
+		}
+	}
+
+	//////////////////////////////////////// INTERFACE /////////////////////////////////////////
+
+	/**
+	 * Interface for everything that is ticked by the ticker
+	 *
+	 * @author Melvin Lobo
+	 */
+	interface Client {
+		/**
+		 * Advance to the frame time
+		 *
+		 * @param frameTimeNanos
+		 * 		The frame time from the Choreographer
+		 *
+		 * @return
+		 * 		true to be ticked again on the next frame, false to be unregistered
+		 *
+		 * @author Melvin Lobo
+		 */
+		boolean onTick(long frameTimeNanos);
+	}
+}
@@ -0,0 +1,100 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import java.util.WeakHashMap;
+
+/**
+ * The outer ring of one geometry, rendered once into an alpha only bitmap. The ring does not change from frame to
+ * frame, so on a software canvas it is blitted from the mask instead of being stroked and anti-aliased again on every
+ * frame. Hardware canvases keep drawing the circle, as the renderer caches the shape of the stroke itself and a bitmap
+ * would only add a texture upload.
+ *
+ * Since the bitmap only holds coverage, the ring color and color filter come from the paint it is drawn with, so one
+ * mask serves every ring color. Masks are shared by all spinners of the same geometry, and go away with it.
+ */
+final class OuterRingMask {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * The masks of all spinners, by their geometry
+	 */
+	private static final WeakHashMap<DashSpinnerGeometry, OuterRingMask> sMasks = new WeakHashMap<>();
+
+	/**
+	 * The bitmap holding the coverage of the ring, centered in it
+	 */
+	private final Bitmap mBitmap;
+
+	/**
+	 * The distance from the edges of the bitmap to the center of the ring
+	 */
+	private final int mnHalfSize;
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Get the mask for a geometry, rendering it if no spinner has used it yet
+	 *
+	 * @param geometry
+	 * 		The geometry of the spinner
+	 *
+	 * @return
+	 * 		The mask
+	 *
+	 * @author Melvin Lobo
+	 */
+	static synchronized OuterRingMask get(DashSpinnerGeometry geometry) {
+		OuterRingMask mask = sMasks.get(geometry);
+		if (mask == null) {
+			mask = new OuterRingMask(geometry);
+			sMasks.put(geometry, mask);
+		}
+		return mask;
+	}
+
+	/**
+	 * Constructor. Renders the ring
+	 *
+	 * @param geometry
+	 * 		The geometry of the spinner
+	 *
+	 * @author Melvin Lobo
+	 */
+	private OuterRingMask(DashSpinnerGeometry geometry) {
+		/*
+		 * The center of the spinner is on a whole pixel, so the ring lands on the same pixels in the mask as on the
+		 * canvas. One more pixel on each side holds the anti-aliased edge
+		 */
+		mnHalfSize = (int) Math.ceil(geometry.mnRingRadius + (geometry.mnRingWidth / 2)) + 1;
+
+		Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+		paint.setStyle(Paint.Style.STROKE);
+		paint.setStrokeWidth(geometry.mnRingWidth);
+
+		mBitmap = Bitmap.createBitmap(mnHalfSize * 2, mnHalfSize * 2, Bitmap.Config.ALPHA_8);
+		Canvas canvas = new Canvas(mBitmap);
+		canvas.drawCircle(mnHalfSize, mnHalfSize, geometry.mnRingRadius, paint);
+	}
+
+	/**
+	 * Draw the ring centered on a point, like {@link Canvas#drawCircle} with a stroke of the ring width
+	 *
+	 * @param canvas
+	 * 		The canvas to draw on
+	 * @param nCenterX
+	 * 		The X center of the ring
+	 * @param nCenterY
+	 * 		The Y center of the ring
+	 * @param paint
+	 * 		The paint to draw with. Its color is the color of the ring
+	 *
+	 * @author Melvin Lobo
+	 */
+	void draw(Canvas canvas, float nCenterX, float nCenterY, Paint paint) {
+		canvas.drawBitmap(mBitmap, nCenterX - mnHalfSize, nCenterY - mnHalfSize, paint);
+	}
+}
@@ -0,0 +1,245 @@
+package com.abysmel.dashspinner;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The colors that the Dash Spinner draws with while downloading, as a function of the progress: the blended
+ * progress text color and the inner circle color with its alpha.
+ *
+ * Both are evaluated once, at TABLE_STEPS + 1 evenly spaced values of the progress, when a set of colors is first
+ * used. A DOWNLOAD frame then only looks its colors up. TABLE_STEPS is the largest alpha, so that every alpha
+ * value the inner circle can take has its own entry. Tables never change once built, so spinners with the same
+ * colors share one.
+ *
+ * The text colors can optionally be blended in linear light instead of in sRGB, which keeps the middle of the
+ * blend from looking too dark. As the blend is baked into the table, it costs nothing while drawing.
+ */
+final class ProgressColorTable {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * The resolution of the table
+	 */
+	static final int TABLE_STEPS = 255;
+
+	/**
+	 * The most tables kept for reuse. The least recently used one is dropped beyond this
+	 */
+	private static final int MAX_CACHED_TABLES = 16;
+
+	/**
+	 * The tables of all spinners, by their colors
+	 */
+	private static final LinkedHashMap<TableKey, ProgressColorTable> sTables = new LinkedHashMap<TableKey, ProgressColorTable>(MAX_CACHED_TABLES, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<TableKey, ProgressColorTable> eldest) {
+			return size() > MAX_CACHED_TABLES;
+		}
+	};
+
+	/**
+	 * The blended text colors
+	 */
+	private final int[] mnTextColors = new int[TABLE_STEPS + 1];
+
+	/**
+	 * The inner circle colors, with the alpha of the progress
+	 */
+	private final int[] mnInnerCircleColors = new int[TABLE_STEPS + 1];
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Get the table for a set of colors, building it if no spinner uses them yet. Called whenever one of them
+	 * changes, never while drawing
+	 *
+	 * @param nTextColorFrom
+	 * 		The text color at 0% progress
+	 * @param nTextColorTo
+	 * 		The text color at 100% progress
+	 * @param nInnerCircleColor
+	 * 		The color of the inner circle while downloading. Its alpha is replaced by the alpha of the progress
+	 * @param bGammaCorrect
+	 * 		true to blend the text colors in linear light
+	 *
+	 * @return
+	 * 		The table
+	 *
+	 * @author Melvin Lobo
+	 */
+	static synchronized ProgressColorTable get(int nTextColorFrom, int nTextColorTo, int nInnerCircleColor, boolean bGammaCorrect) {
+		TableKey key = new TableKey(nTextColorFrom, nTextColorTo, nInnerCircleColor, bGammaCorrect);
+		ProgressColorTable table = sTables.get(key);
+		if (table == null) {
+			table = new ProgressColorTable(nTextColorFrom, nTextColorTo, nInnerCircleColor, bGammaCorrect);
+			sTables.put(key, table);
+		}
+		return table;
+	}
+
+	/**
+	 * Constructor. Builds the table
+	 *
+	 * @param nTextColorFrom
+	 * 		The text color at 0% progress
+	 * @param nTextColorTo
+	 * 		The text color at 100% progress
+	 * @param nInnerCircleColor
+	 * 		The color of the inner circle while downloading
+	 * @param bGammaCorrect
+	 * 		true to blend the text colors in linear light
+	 *
+	 * @author Melvin Lobo
+	 */
+	private ProgressColorTable(int nTextColorFrom, int nTextColorTo, int nInnerCircleColor, boolean bGammaCorrect) {
+		int nInnerCircleRgb = nInnerCircleColor & 0x00FFFFFF;
+		for (int nStep = 0; nStep <= TABLE_STEPS; nStep++) {
+			float nProgress = (float) nStep / TABLE_STEPS;
+			mnTextColors[nStep] = 0xFF000000 |
+					(blendChannel(nTextColorFrom >> 16, nTextColorTo >> 16, nProgress, bGammaCorrect) << 16) |
+					(blendChannel(nTextColorFrom >> 8, nTextColorTo >> 8, nProgress, bGammaCorrect) << 8) |
+					blendChannel(nTextColorFrom, nTextColorTo, nProgress, bGammaCorrect);
+			mnInnerCircleColors[nStep] = (nStep << 24) | nInnerCircleRgb;
+		}
+	}
+
+	/**
+	 * Get the blended text color for a progress
+	 *
+	 * @param nProgress
+	 * 		The progress, clamped to 0..1
+	 *
+	 * @return
+	 * 		The opaque text color
+	 *
+	 * @author Melvin Lobo
+	 */
+	int getTextColor(float nProgress) {
+		return mnTextColors[getStep(nProgress)];
+	}
+
+	/**
+	 * Get the inner circle color for a progress
+	 *
+	 * @param nProgress
+	 * 		The progress, clamped to 0..1
+	 *
+	 * @return
+	 * 		The inner circle color, with the alpha of the progress
+	 *
+	 * @author Melvin Lobo
+	 */
+	int getInnerCircleColor(float nProgress) {
+		return mnInnerCircleColors[getStep(nProgress)];
+	}
+
+	/**
+	 * Get the inner circle alpha for a progress
+	 *
+	 * @param nProgress
+	 * 		The progress, clamped to 0..1
+	 *
+	 * @return
+	 * 		The alpha (0..255)
+	 *
+	 * @author Melvin Lobo
+	 */
+	int getInnerCircleAlpha(float nProgress) {
+		return getStep(nProgress);
+	}
+
+	/**
+	 * Get the entry of a progress
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static int getStep(float nProgress) {
+		int nStep = (int) (nProgress * TABLE_STEPS);
+		return (nStep < 0) ? 0 : ((nStep > TABLE_STEPS) ? TABLE_STEPS : nStep);
+	}
+
+	/**
+	 * Blend one 8 bit color channel
+	 *
+	 * @param nFrom
+	 * 		The color holding the channel to blend from in its lowest 8 bits
+	 * @param nTo
+	 * 		The color holding the channel to blend to in its lowest 8 bits
+	 * @param nProgress
+	 * 		The ratio of the blend
+	 * @param bGammaCorrect
+	 * 		true to blend in linear light
+	 *
+	 * @return
+	 * 		The blended channel
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static int blendChannel(int nFrom, int nTo, float nProgress, boolean bGammaCorrect) {
+		int nFromChannel = nFrom & 0xFF;
+		int nToChannel = nTo & 0xFF;
+		if (!bGammaCorrect)
+			return (int) ((nToChannel * nProgress) + (nFromChannel * (1f - nProgress)));
+
+		double nLinear = (toLinear(nToChannel) * nProgress) + (toLinear(nFromChannel) * (1f - nProgress));
+		int nChannel = (int) Math.round(fromLinear(nLinear) * 255);
+		return (nChannel < 0) ? 0 : ((nChannel > 255) ? 255 : nChannel);
+	}
+
+	/**
+	 * Convert an 8 bit sRGB channel to linear light (0..1)
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static double toLinear(int nChannel) {
+		double nValue = nChannel / 255.0;
+		return (nValue <= 0.04045) ? (nValue / 12.92) : Math.pow((nValue + 0.055) / 1.055, 2.4);
+	}
+
+	/**
+	 * Convert a linear light value (0..1) to an sRGB value (0..1)
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static double fromLinear(double nValue) {
+		return (nValue <= 0.0031308) ? (nValue * 12.92) : ((1.055 * Math.pow(nValue, 1 / 2.4)) - 0.055);
+	}
+
+	//////////////////////////////////////// INNER CLASS /////////////////////////////////////////
+
+	/**
+	 * The key of a table in the cache
+	 */
+	private static final class TableKey {
+		private final int mnTextColorFrom;
+		private final int mnTextColorTo;
+		private final int mnInnerCircleColor;
+		private final boolean mbGammaCorrect;
+
+		TableKey(int nTextColorFrom, int nTextColorTo, int nInnerCircleColor, boolean bGammaCorrect) {
+			mnTextColorFrom = nTextColorFrom;
+			mnTextColorTo = nTextColorTo;
+			mnInnerCircleColor = nInnerCircleColor;
+			mbGammaCorrect = bGammaCorrect;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof TableKey))
+				return false;
+			TableKey key = (TableKey) object;
+			return (mnTextColorFrom == key.mnTextColorFrom) && (mnTextColorTo == key.mnTextColorTo) &&
+					(mnInnerCircleColor == key.mnInnerCircleColor) && (mbGammaCorrect == key.mbGammaCorrect);
+		}
+
+		@Override
+		public int hashCode() {
+			int nHash = mnTextColorFrom;
+			nHash = (31 * nHash) + mnTextColorTo;
+			nHash = (31 * nHash) + mnInnerCircleColor;
+			return (31 * nHash) + (mbGammaCorrect ? 1 : 0);
+		}
+	}
+}
@@ -0,0 +1,263 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+
+import java.util.HashMap;
+
+/**
+ * A glyph atlas for the progress percentage text: the digits and the percent sign, rendered once into an alpha only
+ * bitmap. The progress text is then drawn as one bitmap draw per character, instead of shaping and laying out text on
+ * every frame, no matter how complex the font is.
+ *
+ * Since the bitmap only holds coverage, the text color comes from the paint it is drawn with, so one atlas serves every
+ * text color. The text size changes continuously while the inner circle grows, so atlases are rendered at power of two
+ * size buckets and scaled down by at most half to the size being drawn. Atlases are rendered in pixels, so they are
+ * shared by all spinners that use the same typeface and size bucket, whatever their density.
+ */
+final class ProgressTextAtlas {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * The characters in the atlas
+	 */
+	private static final String GLYPHS       = "0123456789%";
+	private static final int    PERCENT_CELL = 10;
+
+	/**
+	 * The smallest size bucket. Smaller text is scaled down from it
+	 */
+	private static final int MIN_BUCKET_SIZE = 8;
+
+	/**
+	 * The atlases of all spinners, by typeface and size bucket
+	 */
+	private static final HashMap<AtlasKey, ProgressTextAtlas> sAtlases = new HashMap<>();
+
+	/**
+	 * The bitmap holding the glyphs side by side in cells
+	 */
+	private final Bitmap mBitmap;
+
+	/**
+	 * The text size that the glyphs are rendered at
+	 */
+	private final int mnBucketSize;
+
+	/**
+	 * The left edge of each cell. The glyph is drawn at the padding from it
+	 */
+	private final int[] mnCellLefts = new int[GLYPHS.length() + 1];
+
+	/**
+	 * The advance of each glyph
+	 */
+	private final float[] mnAdvances = new float[GLYPHS.length()];
+
+	/**
+	 * The empty space around each glyph, so that overhanging glyphs and filtering do not bleed into the next cell
+	 */
+	private final int mnPadding;
+
+	/**
+	 * The height of the cells
+	 */
+	private final int mnCellHeight;
+
+	/**
+	 * The ascent and descent of the font at the bucket size
+	 */
+	private final float mnAscent;
+	private final float mnDescent;
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Get the atlas for a typeface and a size bucket, rendering it if no spinner has used it yet
+	 *
+	 * @param typeface
+	 * 		The typeface of the progress text
+	 * @param nBucketSize
+	 * 		The size bucket, from {@link #getBucketSize(float)}
+	 *
+	 * @return
+	 * 		The atlas
+	 *
+	 * @author Melvin Lobo
+	 */
+	static synchronized ProgressTextAtlas get(Typeface typeface, int nBucketSize) {
+		AtlasKey key = new AtlasKey(typeface, nBucketSize);
+		ProgressTextAtlas atlas = sAtlases.get(key);
+		if (atlas == null) {
+			atlas = new ProgressTextAtlas(typeface, nBucketSize);
+			sAtlases.put(key, atlas);
+		}
+		return atlas;
+	}
+
+	/**
+	 * Get the size bucket for a text size: the smallest power of two that is at least the text size
+	 *
+	 * @param nTextSize
+	 * 		The text size in pixels
+	 *
+	 * @return
+	 * 		The size bucket
+	 *
+	 * @author Melvin Lobo
+	 */
+	static int getBucketSize(float nTextSize) {
+		int nBucketSize = MIN_BUCKET_SIZE;
+		while (nBucketSize < nTextSize) {
+			nBucketSize <<= 1;
+		}
+		return nBucketSize;
+	}
+
+	/**
+	 * Constructor. Renders the glyphs
+	 *
+	 * @param typeface
+	 * 		The typeface of the progress text
+	 * @param nBucketSize
+	 * 		The text size to render the glyphs at
+	 *
+	 * @author Melvin Lobo
+	 */
+	private ProgressTextAtlas(Typeface typeface, int nBucketSize) {
+		mnBucketSize = nBucketSize;
+		mnPadding = Math.max(2, nBucketSize / 8);
+
+		Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+		paint.setTypeface(typeface);
+		paint.setTextSize(nBucketSize);
+		mnAscent = paint.ascent();
+		mnDescent = paint.descent();
+		mnCellHeight = (int) Math.ceil(mnDescent - mnAscent) + (mnPadding * 2);
+
+		/*
+		 * Lay the cells out side by side
+		 */
+		char[] glyph = new char[1];
+		int nLeft = 0;
+		for (int nCell = 0; nCell < GLYPHS.length(); nCell++) {
+			glyph[0] = GLYPHS.charAt(nCell);
+			mnAdvances[nCell] = paint.measureText(glyph, 0, 1);
+			mnCellLefts[nCell] = nLeft;
+			nLeft += (int) Math.ceil(mnAdvances[nCell]) + (mnPadding * 2);
+		}
+		mnCellLefts[GLYPHS.length()] = nLeft;
+
+		/*
+		 * Render the glyphs. Only their coverage is kept
+		 */
+		mBitmap = Bitmap.createBitmap(nLeft, mnCellHeight, Bitmap.Config.ALPHA_8);
+		Canvas canvas = new Canvas(mBitmap);
+		for (int nCell = 0; nCell < GLYPHS.length(); nCell++) {
+			glyph[0] = GLYPHS.charAt(nCell);
+			canvas.drawText(glyph, 0, 1, mnCellLefts[nCell] + mnPadding, mnPadding - mnAscent, paint);
+		}
+	}
+
+	/**
+	 * Draw a percentage string centered on a point, like a center aligned {@link Canvas#drawText} with a baseline
+	 * that centers the text vertically
+	 *
+	 * @param canvas
+	 * 		The canvas to draw on
+	 * @param text
+	 * 		The text. Must only hold digits and the percent sign
+	 * @param nCenterX
+	 * 		The X center of the text
+	 * @param nCenterY
+	 * 		The Y center of the text
+	 * @param nTextSize
+	 * 		The text size to draw at
+	 * @param paint
+	 * 		The paint to draw with. Its color is the color of the text
+	 * @param srcRect
+	 * 		A rect to reuse for the source of each glyph
+	 * @param dstRect
+	 * 		A rect to reuse for the destination of each glyph
+	 *
+	 * @return
+	 * 		The number of draw ops issued
+	 *
+	 * @author Melvin Lobo
+	 */
+	int draw(Canvas canvas, String text, float nCenterX, float nCenterY, float nTextSize, Paint paint, Rect srcRect, RectF dstRect) {
+		float nScale = nTextSize / mnBucketSize;
+		int nLength = text.length();
+
+		float nWidth = 0.0f;
+		for (int nIndex = 0; nIndex < nLength; nIndex++) {
+			nWidth += mnAdvances[getCell(text.charAt(nIndex))];
+		}
+
+		float nPenX = nCenterX - ((nWidth * nScale) / 2);
+		float nBaseline = nCenterY - (((mnAscent + mnDescent) * nScale) / 2);
+		float nTop = nBaseline + ((mnAscent - mnPadding) * nScale);
+		float nBottom = nTop + (mnCellHeight * nScale);
+		for (int nIndex = 0; nIndex < nLength; nIndex++) {
+			int nCell = getCell(text.charAt(nIndex));
+			int nCellLeft = mnCellLefts[nCell];
+			int nCellRight = mnCellLefts[nCell + 1];
+
+			float nLeft = nPenX - (mnPadding * nScale);
+			srcRect.set(nCellLeft, 0, nCellRight, mnCellHeight);
+			dstRect.set(nLeft, nTop, nLeft + ((nCellRight - nCellLeft) * nScale), nBottom);
+			canvas.drawBitmap(mBitmap, srcRect, dstRect, paint);
+
+			nPenX += mnAdvances[nCell] * nScale;
+		}
+		return nLength;
+	}
+
+	/**
+	 * Get the cell of a character
+	 *
+	 * @param character
+	 * 		A digit or the percent sign
+	 *
+	 * @return
+	 * 		The cell
+	 *
+	 * @author Melvin Lobo
+	 */
+	private static int getCell(char character) {
+		return (character == '%') ? PERCENT_CELL : (character - '0');
+	}
+
+	//////////////////////////////////////// INNER CLASS /////////////////////////////////////////
+
+	/**
+	 * The key of an atlas in the cache
+	 */
+	private static final class AtlasKey {
+		private final Typeface mTypeface;
+		private final int mnBucketSize;
+
+		AtlasKey(Typeface typeface, int nBucketSize) {
+			mTypeface = typeface;
+			mnBucketSize = nBucketSize;
+		}
+
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof AtlasKey))
+				return false;
+			AtlasKey key = (AtlasKey) object;
+			return (mnBucketSize == key.mnBucketSize) && ((mTypeface == null) ? (key.mTypeface == null) : mTypeface.equals(key.mTypeface));
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * ((mTypeface == null) ? 0 : mTypeface.hashCode())) + mnBucketSize;
+		}
+	}
+}
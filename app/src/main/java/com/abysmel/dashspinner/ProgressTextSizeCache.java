@@ -0,0 +1,105 @@
+package com.abysmel.dashspinner;
+
+import android.graphics.Typeface;
+import android.text.TextPaint;
+
+import java.util.HashMap;
+
+/**
+ * Cache of the text sizes used to fit the progress percentage text inside the inner circle.
+ *
+ * The width of a single line of text scales linearly with its text size, so instead of searching
+ * for a fitting size on every frame, we measure each of the 101 possible percentage strings once at a
+ * reference size and store its width per pixel of text size. Fitting a string to a target width is
+ * then a single division.
+ *
+ * The cache only depends on the typeface, so it is built once per typeface and shared by all spinners that use it.
+ */
+final class ProgressTextSizeCache {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * The text size at which the strings are measured. Large enough that hinting does not skew the ratio
+	 */
+	private static final float REFERENCE_TEXT_SIZE = 100.0f;
+
+	/**
+	 * The caches of all spinners, by typeface
+	 */
+	private static final HashMap<Typeface, ProgressTextSizeCache> sCaches = new HashMap<>();
+
+	/**
+	 * The width of each string per pixel of text size
+	 */
+	private final float[] mnUnitWidths;
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Get the cache for a typeface, measuring the strings if no spinner has used the typeface yet
+	 *
+	 * @param typeface
+	 * 		The typeface that the text will be drawn with
+	 * @param strings
+	 * 		The strings to measure, indexed the same way as they will be looked up. Always the same strings
+	 *
+	 * @return
+	 * 		The cache
+	 *
+	 * @author Melvin Lobo
+	 */
+	static synchronized ProgressTextSizeCache get(Typeface typeface, String[] strings) {
+		ProgressTextSizeCache cache = sCaches.get(typeface);
+		if (cache == null) {
+			cache = new ProgressTextSizeCache(typeface, strings);
+			sCaches.put(typeface, cache);
+		}
+		return cache;
+	}
+
+	/**
+	 * Constructor. Measures the strings
+	 *
+	 * @param typeface
+	 * 		The typeface that the text will be drawn with
+	 * @param strings
+	 * 		The strings to measure
+	 *
+	 * @author Melvin Lobo
+	 */
+	private ProgressTextSizeCache(Typeface typeface, String[] strings) {
+		mnUnitWidths = new float[strings.length];
+
+		TextPaint paint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+		paint.setTypeface(typeface);
+		paint.setTextSize(REFERENCE_TEXT_SIZE);
+		for (int nIndex = 0; nIndex < mnUnitWidths.length; nIndex++) {
+			mnUnitWidths[nIndex] = paint.measureText(strings[nIndex]) / REFERENCE_TEXT_SIZE;
+		}
+	}
+
+	/**
+	 * Get the largest text size at which the string at the index fits in the target width
+	 *
+	 * @param nIndex
+	 * 		The index of the string (the percentage value for progress text)
+	 * @param nTargetWidth
+	 * 		The width that the text has to fit in
+	 * @param nMaxTextSize
+	 * 		The largest text size allowed
+	 *
+	 * @return
+	 * 		The text size, between 0 and nMaxTextSize
+	 *
+	 * @author Melvin Lobo
+	 */
+	float getTextSize(int nIndex, float nTargetWidth, float nMaxTextSize) {
+		float nUnitWidth = mnUnitWidths[nIndex];
+		if (nUnitWidth <= 0.0f)
+			return nMaxTextSize;
+
+		float nTextSize = nTargetWidth / nUnitWidth;
+		return (nTextSize < 0.0f) ? 0.0f : ((nTextSize > nMaxTextSize) ? nMaxTextSize : nTextSize);
+	}
+}
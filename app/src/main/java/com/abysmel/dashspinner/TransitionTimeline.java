@@ -0,0 +1,116 @@
+package com.abysmel.dashspinner;
+
+/**
+ * The transition of the Dash Spinner to a result, as one timeline of keyframed phases:
+ *
+ * 1. PHASE_TEXT_AND_CIRCLE scales the text down and finishes the circle (progress 1 to 0)
+ * 2. PHASE_LINE grows the dot to a line (progress 0 to 1)
+ * 3. PHASE_RESULT turns the line into the symbol of the result (progress 0 to 1)
+ * 4. PHASE_HOLD shows the result before the listener is told, so that the animation does not run too fast and
+ *    break the UX (progress stays at 1)
+ *
+ * Every phase runs for the same duration and eases out like a {@link android.view.animation.DecelerateInterpolator}.
+ * The timeline holds no clock of its own: it is seeked to the time elapsed since the transition started, so a single
+ * frame clock drives every phase, and any point of the transition can be shown. The phase and progress at the
+ * last seek are kept in the timeline, so that seeking allocates nothing.
+ */
+final class TransitionTimeline {
+
+	//////////////////////////////////////// CLASS MEMBERS /////////////////////////////////////////
+	/**
+	 * The phases
+	 */
+	static final int PHASE_TEXT_AND_CIRCLE = 0;
+	static final int PHASE_LINE            = 1;
+	static final int PHASE_RESULT          = 2;
+	static final int PHASE_HOLD            = 3;
+	static final int PHASE_COUNT           = 4;
+
+	/**
+	 * The keyframes: the progress at the start and at the end of each phase
+	 */
+	private static final float[] PHASE_START_PROGRESS = { 1.0f, 0.0f, 0.0f, 1.0f };
+	private static final float[] PHASE_END_PROGRESS   = { 0.0f, 1.0f, 1.0f, 1.0f };
+
+	/**
+	 * The duration of each phase
+	 */
+	private final long mnPhaseDurationNanos;
+
+	/**
+	 * The phase and its progress at the last seek
+	 */
+	private int mnPhase = PHASE_TEXT_AND_CIRCLE;
+	private float mnProgress = PHASE_START_PROGRESS[PHASE_TEXT_AND_CIRCLE];
+
+
+	//////////////////////////////////////// CLASS METHODS /////////////////////////////////////////
+
+	/**
+	 * Constructor
+	 *
+	 * @param nPhaseDurationNanos
+	 * 		The duration of each phase, in nanoseconds
+	 *
+	 * @author Melvin Lobo
+	 */
+	TransitionTimeline(long nPhaseDurationNanos) {
+		mnPhaseDurationNanos = nPhaseDurationNanos;
+	}
+
+	/**
+	 * Get the duration of the whole timeline
+	 *
+	 * @return
+	 * 		The duration in nanoseconds
+	 *
+	 * @author Melvin Lobo
+	 */
+	long getDurationNanos() {
+		return mnPhaseDurationNanos * PHASE_COUNT;
+	}
+
+	/**
+	 * Seek to a point of the timeline
+	 *
+	 * @param nElapsedNanos
+	 * 		The time since the start of the transition. Clamped to the timeline
+	 *
+	 * @return
+	 * 		true if the point is the end of the timeline
+	 *
+	 * @author Melvin Lobo
+	 */
+	boolean seek(long nElapsedNanos) {
+		if (nElapsedNanos >= getDurationNanos()) {
+			mnPhase = PHASE_HOLD;
+			mnProgress = PHASE_END_PROGRESS[PHASE_HOLD];
+			return true;
+		}
+
+		long nElapsed = (nElapsedNanos < 0) ? 0 : nElapsedNanos;
+		mnPhase = (int) (nElapsed / mnPhaseDurationNanos);
+
+		float nFraction = (float) (nElapsed - (mnPhase * mnPhaseDurationNanos)) / mnPhaseDurationNanos;
+		float nInverseFraction = 1.0f - nFraction;
+		float nEased = 1.0f - (nInverseFraction * nInverseFraction);
+		mnProgress = PHASE_START_PROGRESS[mnPhase] + ((PHASE_END_PROGRESS[mnPhase] - PHASE_START_PROGRESS[mnPhase]) * nEased);
+		return false;
+	}
+
+	/**
+	 * @return
+	 * 		The phase at the last seek
+	 */
+	int getPhase() {
+		return mnPhase;
+	}
+
+	/**
+	 * @return
+	 * 		The progress of the phase at the last seek
+	 */
+	float getProgress() {
+		return mnProgress;
+	}
+}
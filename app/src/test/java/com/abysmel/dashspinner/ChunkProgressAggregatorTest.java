@@ -0,0 +1,118 @@
+package com.abysmel.dashspinner;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ChunkProgressAggregatorTest {
+
+	@Test
+	public void progress_isWeightedByChunkSize() throws Exception {
+		ChunkProgressAggregator aggregator = new ChunkProgressAggregator(100, 300);
+
+		aggregator.addBytes(0, 100);
+		assertEquals(0.25f, aggregator.getProgress(), 0.0001f);
+
+		aggregator.addBytes(1, 150);
+		assertEquals(0.625f, aggregator.getProgress(), 0.0001f);
+
+		//A chunk never counts for more than its own size
+		aggregator.addBytes(0, 50);
+		assertEquals(0.625f, aggregator.getProgress(), 0.0001f);
+
+		aggregator.reset();
+		assertEquals(0.0f, aggregator.getProgress(), 0.0f);
+	}
+
+	@Test
+	public void listener_isNotifiedOncePerRead() throws Exception {
+		ChunkProgressAggregator aggregator = new ChunkProgressAggregator(10, 10);
+		final AtomicInteger nNotifications = new AtomicInteger(0);
+		aggregator.setOnChunkProgressListener(new ChunkProgressAggregator.OnChunkProgressListener() {
+			@Override
+			public void onChunkProgress() {
+				nNotifications.incrementAndGet();
+			}
+		});
+
+		aggregator.addBytes(0, 1);
+		aggregator.addBytes(1, 1);
+		assertEquals(1, nNotifications.get());
+
+		assertTrue(aggregator.consumeChanged());
+		assertFalse(aggregator.consumeChanged());
+
+		aggregator.setBytes(0, 5);
+		assertEquals(2, nNotifications.get());
+	}
+
+	@Test
+	public void listener_isOnlyClearedByItsOwner() throws Exception {
+		ChunkProgressAggregator aggregator = new ChunkProgressAggregator(10);
+		final AtomicInteger nNotifications = new AtomicInteger(0);
+		ChunkProgressAggregator.OnChunkProgressListener previousListener = new ChunkProgressAggregator.OnChunkProgressListener() {
+			@Override
+			public void onChunkProgress() {
+			}
+		};
+		ChunkProgressAggregator.OnChunkProgressListener currentListener = new ChunkProgressAggregator.OnChunkProgressListener() {
+			@Override
+			public void onChunkProgress() {
+				nNotifications.incrementAndGet();
+			}
+		};
+
+		//The aggregator has been bound to another spinner since
+		aggregator.setOnChunkProgressListener(previousListener);
+		aggregator.setOnChunkProgressListener(currentListener);
+		assertFalse(aggregator.clearOnChunkProgressListener(previousListener));
+
+		aggregator.addBytes(0, 1);
+		assertEquals(1, nNotifications.get());
+
+		assertTrue(aggregator.clearOnChunkProgressListener(currentListener));
+		aggregator.consumeChanged();
+		aggregator.addBytes(0, 1);
+		assertEquals(1, nNotifications.get());
+	}
+
+	@Test
+	public void concurrentChunks_addUpToTotal() throws Exception {
+		final int nChunks = 32;
+		final int nReportsPerChunk = 10000;
+		long[] chunkSizes = new long[nChunks];
+		for (int nChunk = 0; nChunk < nChunks; nChunk++) {
+			chunkSizes[nChunk] = nReportsPerChunk * (nChunk + 1);
+		}
+
+		final ChunkProgressAggregator aggregator = new ChunkProgressAggregator(chunkSizes);
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		Thread[] threads = new Thread[nChunks];
+		for (int nChunk = 0; nChunk < nChunks; nChunk++) {
+			final int nThreadChunk = nChunk;
+			threads[nChunk] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						startLatch.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int nReport = 0; nReport < nReportsPerChunk; nReport++) {
+						aggregator.addBytes(nThreadChunk, nThreadChunk + 1);
+					}
+				}
+			});
+			threads[nChunk].start();
+		}
+		startLatch.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(1.0f, aggregator.getProgress(), 0.0f);
+	}
+}
@@ -0,0 +1,92 @@
+package com.abysmel.dashspinner;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class DashCommandWordTest {
+
+	@Test
+	public void progress_isCoalescedUntilDrained() throws Exception {
+		DashCommandWord commandWord = new DashCommandWord();
+
+		assertEquals(DashCommandWord.OFFER_SCHEDULE, commandWord.offerProgress(0.1f));
+		assertEquals(DashCommandWord.OFFER_COALESCED, commandWord.offerProgress(0.2f));
+		assertEquals(DashCommandWord.OFFER_COALESCED, commandWord.offerProgress(0.3f));
+
+		long nWord = commandWord.drain();
+		assertTrue(DashCommandWord.hasProgress(nWord));
+		assertEquals(0.3f, DashCommandWord.getProgress(nWord), 0.0f);
+		assertEquals(DashCommandWord.COMMAND_NONE, DashCommandWord.getCommand(nWord));
+
+		//A new drain has to be scheduled once the word has been drained
+		assertEquals(DashCommandWord.OFFER_SCHEDULE, commandWord.offerProgress(0.4f));
+	}
+
+	@Test
+	public void progress_afterCommandIsDropped() throws Exception {
+		DashCommandWord commandWord = new DashCommandWord();
+
+		assertEquals(DashCommandWord.OFFER_SCHEDULE, commandWord.offerProgress(0.5f));
+		assertFalse(commandWord.offerCommand(DashCommandWord.COMMAND_FAILURE));
+		assertEquals(DashCommandWord.OFFER_DROPPED, commandWord.offerProgress(0.9f));
+
+		long nWord = commandWord.drain();
+		assertEquals(0.5f, DashCommandWord.getProgress(nWord), 0.0f);
+		assertEquals(DashCommandWord.COMMAND_FAILURE, DashCommandWord.getCommand(nWord));
+
+		//Nothing is pending after the drain
+		nWord = commandWord.drain();
+		assertFalse(DashCommandWord.hasProgress(nWord));
+		assertEquals(DashCommandWord.COMMAND_NONE, DashCommandWord.getCommand(nWord));
+	}
+
+	@Test
+	public void command_laterReplacesEarlier() throws Exception {
+		DashCommandWord commandWord = new DashCommandWord();
+
+		assertTrue(commandWord.offerCommand(DashCommandWord.COMMAND_SUCCESS));
+		assertFalse(commandWord.offerCommand(DashCommandWord.COMMAND_UNKNOWN));
+
+		assertEquals(DashCommandWord.COMMAND_UNKNOWN, DashCommandWord.getCommand(commandWord.drain()));
+	}
+
+	@Test
+	public void concurrentProducers_scheduleOneDrain() throws Exception {
+		final int nThreads = 8;
+		final int nOffersPerThread = 10000;
+		final DashCommandWord commandWord = new DashCommandWord();
+		final AtomicInteger nScheduled = new AtomicInteger(0);
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		Thread[] threads = new Thread[nThreads];
+
+		for (int nThread = 0; nThread < nThreads; nThread++) {
+			threads[nThread] = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						startLatch.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int nOffer = 1; nOffer <= nOffersPerThread; nOffer++) {
+						if (commandWord.offerProgress((float) nOffer / nOffersPerThread) == DashCommandWord.OFFER_SCHEDULE)
+							nScheduled.incrementAndGet();
+					}
+				}
+			});
+			threads[nThread].start();
+		}
+		startLatch.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		//Nothing drained in between, so exactly one producer had to schedule the drain
+		assertEquals(1, nScheduled.get());
+		assertEquals(1.0f, DashCommandWord.getProgress(commandWord.drain()), 0.0f);
+	}
+}
@@ -0,0 +1,99 @@
+package com.abysmel.dashspinner;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DashGlyphGeometryTest {
+
+	private static final float CENTER_X     = 200.0f;
+	private static final float CENTER_Y     = 150.0f;
+	private static final float LINE_WIDTH   = 150.0f;
+	private static final float DOT_DISTANCE = 30.0f;
+	private static final float TOLERANCE    = 0.01f;
+
+	@Test
+	public void tick_matchesTrigonometry() throws Exception {
+		DashGlyphGeometry geometry = build();
+		float[] points = new float[DashGlyphGeometry.TICK_POINT_COUNT];
+
+		for (int nSample = 0; nSample <= 1000; nSample++) {
+			float nProgress = nSample / 1000.0f;
+			geometry.getTick(nProgress, points);
+
+			double nShortArm = DashGlyphGeometry.TICK_SHORT_ARM_RATIO_PERCENT * LINE_WIDTH;
+			double nLongArm = DashGlyphGeometry.TICK_LONG_ARM_RATIO_PERCENT * LINE_WIDTH;
+			double nStartShortX = CENTER_X - nShortArm * Math.cos(Math.toRadians(DashGlyphGeometry.ARM_ANGLE * nProgress));
+			double nEndShortY = CENTER_Y + nShortArm * Math.sin(Math.toRadians(DashGlyphGeometry.ARM_ANGLE * nProgress));
+			assertEquals(nStartShortX, points[0], TOLERANCE);
+			assertEquals(nEndShortY, points[3], TOLERANCE);
+			assertEquals(nStartShortX + nLongArm * Math.cos(Math.toRadians(-DashGlyphGeometry.ARM_ANGLE * nProgress)), points[6], TOLERANCE);
+			assertEquals(nEndShortY + nLongArm * Math.sin(Math.toRadians(-DashGlyphGeometry.ARM_ANGLE * nProgress)), points[7], TOLERANCE);
+		}
+	}
+
+	@Test
+	public void cross_matchesTrigonometry() throws Exception {
+		DashGlyphGeometry geometry = build();
+		float[] points = new float[DashGlyphGeometry.CROSS_POINT_COUNT];
+		float nArm = LINE_WIDTH / 2;
+
+		for (int nSample = 0; nSample <= 1000; nSample++) {
+			float nProgress = nSample / 1000.0f;
+			geometry.getCross(nProgress, points);
+
+			//Quadrants one, two, three and four, at -A, 180 + A, 180 - A and A
+			double[] angles = {-DashGlyphGeometry.ARM_ANGLE * nProgress, 180 + (DashGlyphGeometry.ARM_ANGLE * nProgress),
+							   180 - (DashGlyphGeometry.ARM_ANGLE * nProgress), DashGlyphGeometry.ARM_ANGLE * nProgress};
+			for (int nArmIndex = 0; nArmIndex < 4; nArmIndex++) {
+				assertEquals(CENTER_X, points[nArmIndex * 4], 0.0f);
+				assertEquals(CENTER_Y, points[nArmIndex * 4 + 1], 0.0f);
+				assertEquals(CENTER_X + nArm * Math.cos(Math.toRadians(angles[nArmIndex])), points[nArmIndex * 4 + 2], TOLERANCE);
+				assertEquals(CENTER_Y + nArm * Math.sin(Math.toRadians(angles[nArmIndex])), points[nArmIndex * 4 + 3], TOLERANCE);
+			}
+		}
+	}
+
+	@Test
+	public void exclamation_matchesTrigonometry() throws Exception {
+		DashGlyphGeometry geometry = build();
+		float[] points = new float[DashGlyphGeometry.EXCLAMATION_POINT_COUNT];
+		float nArm = LINE_WIDTH / 2;
+
+		for (int nSample = 0; nSample <= 1000; nSample++) {
+			float nProgress = nSample / 1000.0f;
+			geometry.getExclamation(nProgress, points);
+
+			double nRotation = DashGlyphGeometry.UNKNOWN_ROTATION_ANGLE * nProgress;
+			assertEquals(CENTER_X + nArm * Math.cos(Math.toRadians(-nRotation)), points[2], TOLERANCE);
+			assertEquals(CENTER_Y + nArm * Math.sin(Math.toRadians(-nRotation)), points[3], TOLERANCE);
+			assertEquals(CENTER_X + nArm * Math.cos(Math.toRadians(180 - nRotation)), points[6], TOLERANCE);
+			assertEquals(CENTER_Y + nArm * Math.sin(Math.toRadians(180 - nRotation)), points[7], TOLERANCE);
+
+			double nDotOffset = nArm + (DOT_DISTANCE * nProgress);
+			assertEquals(CENTER_X + nDotOffset * Math.cos(Math.toRadians(180 - nRotation)), points[8], TOLERANCE);
+			assertEquals(CENTER_Y + nDotOffset * Math.sin(Math.toRadians(180 - nRotation)), points[9], TOLERANCE);
+		}
+	}
+
+	@Test
+	public void progress_isClamped() throws Exception {
+		DashGlyphGeometry geometry = build();
+		float[] clamped = new float[DashGlyphGeometry.CROSS_POINT_COUNT];
+		float[] points = new float[DashGlyphGeometry.CROSS_POINT_COUNT];
+
+		geometry.getCross(1.0f, clamped);
+		geometry.getCross(1.5f, points);
+		assertArrayEquals(clamped, points, 0.0f);
+
+		geometry.getCross(0.0f, clamped);
+		geometry.getCross(-0.5f, points);
+		assertArrayEquals(clamped, points, 0.0f);
+	}
+
+	private static DashGlyphGeometry build() {
+		DashGlyphGeometry geometry = new DashGlyphGeometry();
+		geometry.build(CENTER_X, CENTER_Y, LINE_WIDTH, DOT_DISTANCE);
+		return geometry;
+	}
+}
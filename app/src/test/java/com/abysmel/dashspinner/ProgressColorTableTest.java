@@ -0,0 +1,63 @@
+package com.abysmel.dashspinner;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ProgressColorTableTest {
+
+	private static final int BLACK        = 0xFF000000;
+	private static final int WHITE        = 0xFFFFFFFF;
+	private static final int GREEN        = 0xFF99CC00;
+
+	@Test
+	public void textColor_matchesLinearBlend() throws Exception {
+		ProgressColorTable table = ProgressColorTable.get(0xFF102030, 0xFFF0E0D0, GREEN, false);
+
+		for (int nStep = 0; nStep <= ProgressColorTable.TABLE_STEPS; nStep++) {
+			float nProgress = (float) nStep / ProgressColorTable.TABLE_STEPS;
+			int nColor = table.getTextColor(nProgress);
+			assertEquals(0xFF, nColor >>> 24);
+			assertEquals((int) ((0xF0 * nProgress) + (0x10 * (1f - nProgress))), (nColor >> 16) & 0xFF);
+			assertEquals((int) ((0xE0 * nProgress) + (0x20 * (1f - nProgress))), (nColor >> 8) & 0xFF);
+			assertEquals((int) ((0xD0 * nProgress) + (0x30 * (1f - nProgress))), nColor & 0xFF);
+		}
+	}
+
+	@Test
+	public void gammaCorrectBlend_isBrighterInTheMiddle() throws Exception {
+		ProgressColorTable table = ProgressColorTable.get(BLACK, WHITE, GREEN, true);
+
+		assertEquals(BLACK, table.getTextColor(0.0f));
+		assertEquals(WHITE, table.getTextColor(1.0f));
+		//Half of the light of white is about 188 in sRGB, not 127
+		assertEquals(188, table.getTextColor(0.5f) & 0xFF, 1);
+	}
+
+	@Test
+	public void innerCircleColor_carriesProgressAlpha() throws Exception {
+		ProgressColorTable table = ProgressColorTable.get(BLACK, WHITE, GREEN, false);
+
+		for (int nSample = 0; nSample <= 1000; nSample++) {
+			float nProgress = nSample / 1000.0f;
+			int nAlpha = (int) (255 * nProgress);
+			assertEquals(nAlpha, table.getInnerCircleAlpha(nProgress));
+			assertEquals((nAlpha << 24) | (GREEN & 0x00FFFFFF), table.getInnerCircleColor(nProgress));
+		}
+	}
+
+	@Test
+	public void tables_areShared() throws Exception {
+		assertSame(ProgressColorTable.get(BLACK, WHITE, GREEN, false), ProgressColorTable.get(BLACK, WHITE, GREEN, false));
+		assertNotSame(ProgressColorTable.get(BLACK, WHITE, GREEN, false), ProgressColorTable.get(BLACK, WHITE, GREEN, true));
+	}
+
+	@Test
+	public void progress_isClamped() throws Exception {
+		ProgressColorTable table = ProgressColorTable.get(BLACK, WHITE, GREEN, false);
+
+		assertEquals(table.getTextColor(0.0f), table.getTextColor(-0.5f));
+		assertEquals(table.getTextColor(1.0f), table.getTextColor(1.5f));
+		assertEquals(255, table.getInnerCircleAlpha(1.5f));
+	}
+}
@@ -0,0 +1,56 @@
+package com.abysmel.dashspinner;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TransitionTimelineTest {
+
+	private static final long  PHASE_NANOS = 400000000L;
+	private static final float TOLERANCE   = 0.0001f;
+
+	@Test
+	public void phases_followKeyframes() throws Exception {
+		TransitionTimeline timeline = new TransitionTimeline(PHASE_NANOS);
+
+		assertFalse(timeline.seek(0));
+		assertEquals(TransitionTimeline.PHASE_TEXT_AND_CIRCLE, timeline.getPhase());
+		assertEquals(1.0f, timeline.getProgress(), TOLERANCE);
+
+		assertFalse(timeline.seek(PHASE_NANOS));
+		assertEquals(TransitionTimeline.PHASE_LINE, timeline.getPhase());
+		assertEquals(0.0f, timeline.getProgress(), TOLERANCE);
+
+		assertFalse(timeline.seek((PHASE_NANOS * 2) + (PHASE_NANOS / 2)));
+		assertEquals(TransitionTimeline.PHASE_RESULT, timeline.getPhase());
+		assertEquals(0.75f, timeline.getProgress(), TOLERANCE);        //Eased out: 1 - (1 - 0.5)^2
+
+		assertFalse(timeline.seek(PHASE_NANOS * 3));
+		assertEquals(TransitionTimeline.PHASE_HOLD, timeline.getPhase());
+		assertEquals(1.0f, timeline.getProgress(), TOLERANCE);
+	}
+
+	@Test
+	public void seek_isRandomAccess() throws Exception {
+		TransitionTimeline timeline = new TransitionTimeline(PHASE_NANOS);
+
+		timeline.seek(PHASE_NANOS * 3);
+		timeline.seek(PHASE_NANOS / 2);
+		assertEquals(TransitionTimeline.PHASE_TEXT_AND_CIRCLE, timeline.getPhase());
+		assertEquals(0.25f, timeline.getProgress(), TOLERANCE);
+
+		timeline.seek(-PHASE_NANOS);
+		assertEquals(TransitionTimeline.PHASE_TEXT_AND_CIRCLE, timeline.getPhase());
+		assertEquals(1.0f, timeline.getProgress(), TOLERANCE);
+	}
+
+	@Test
+	public void end_isReportedOnlyAtTheFinalFrame() throws Exception {
+		TransitionTimeline timeline = new TransitionTimeline(PHASE_NANOS);
+
+		assertFalse(timeline.seek(timeline.getDurationNanos() - 1));
+		assertTrue(timeline.seek(timeline.getDurationNanos()));
+		assertEquals(TransitionTimeline.PHASE_HOLD, timeline.getPhase());
+		assertTrue(timeline.seek(timeline.getDurationNanos() * 2));
+	}
+}